@@ -0,0 +1,61 @@
+package com.coffeeshop.controller;
+
+import com.coffeeshop.exception.BadRequestException;
+import com.coffeeshop.service.OrderExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * REST controller for administrative order operations.
+ */
+@RestController
+@RequestMapping("/api/v1/admin/orders")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@SecurityRequirement(name = "bearer-jwt")
+@Tag(name = "Admin Orders", description = "Order administration APIs")
+public class AdminOrderController {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final OrderExportService orderExportService;
+
+    @GetMapping("/export")
+    @Operation(summary = "Export orders dated from..to (inclusive) as CSV or NDJSON (Admin only)")
+    public void exportOrders(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "csv") String format,
+            HttpServletResponse response) throws IOException {
+        if (from.isAfter(to)) {
+            throw new BadRequestException("'from' must not be after 'to'");
+        }
+        OrderExportService.Format exportFormat = OrderExportService.Format.parse(format);
+
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("orders-" + from + "-" + to + "." + exportFormat.getExtension())
+                .build()
+                .toString());
+
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8), BUFFER_SIZE);
+        orderExportService.export(from.atStartOfDay(), to.plusDays(1).atStartOfDay(), exportFormat, writer);
+    }
+}
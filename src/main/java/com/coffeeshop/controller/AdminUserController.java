@@ -0,0 +1,34 @@
+package com.coffeeshop.controller;
+
+import com.coffeeshop.dto.UserDTO;
+import com.coffeeshop.service.UserImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for administrative user operations.
+ */
+@RestController
+@RequestMapping("/api/v1/admin/users")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@SecurityRequirement(name = "bearer-jwt")
+@Tag(name = "Admin Users", description = "User administration APIs")
+public class AdminUserController {
+
+    private final UserImportService userImportService;
+
+    @PostMapping("/import")
+    @Operation(summary = "Bulk import users (Admin only)")
+    public ResponseEntity<UserDTO.BulkImportResponse> importUsers(
+            @Valid @RequestBody UserDTO.BulkImportRequest request) {
+        UserDTO.BulkImportResponse response = userImportService.importUsers(request.getUsers());
+        return ResponseEntity.ok(response);
+    }
+}
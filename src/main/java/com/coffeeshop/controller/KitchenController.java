@@ -0,0 +1,33 @@
+package com.coffeeshop.controller;
+
+import com.coffeeshop.dto.KitchenDTO;
+import com.coffeeshop.service.KitchenQueue;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for kitchen staff.
+ */
+@RestController
+@RequestMapping("/api/v1/kitchen")
+@RequiredArgsConstructor
+@PreAuthorize("hasAnyRole('BARISTA', 'ADMIN')")
+@SecurityRequirement(name = "bearer-jwt")
+@Tag(name = "Kitchen", description = "Kitchen queue APIs")
+public class KitchenController {
+
+    private final KitchenQueue kitchenQueue;
+
+    @GetMapping("/queue")
+    @Operation(summary = "Get the kitchen queue with estimated ready times (Barista/Admin only)")
+    public ResponseEntity<KitchenDTO.QueueResponse> getQueue() {
+        return ResponseEntity.ok(kitchenQueue.view());
+    }
+}
@@ -1,7 +1,10 @@
 package com.coffeeshop.controller;
 
 import com.coffeeshop.dto.OrderDTO;
-import com.coffeeshop.entity.User;
+import com.coffeeshop.security.UserPrincipal;
+import com.coffeeshop.service.IdempotencyService;
+import com.coffeeshop.service.OrderEventStream;
+import com.coffeeshop.service.OrderIntakeService;
 import com.coffeeshop.service.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -10,11 +13,15 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * REST controller for order operations.
@@ -27,15 +34,29 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderIntakeService orderIntakeService;
+    private final IdempotencyService idempotencyService;
+    private final OrderEventStream orderEventStream;
 
     @PostMapping
     @Operation(summary = "Create a new order")
     public ResponseEntity<OrderDTO.OrderResponse> createOrder(
             Authentication authentication,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @Valid @RequestBody OrderDTO.CreateOrderRequest request) {
-        User user = (User) authentication.getPrincipal();
-        OrderDTO.OrderResponse order = orderService.createOrder(user.getId(), request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(order);
+        UserPrincipal user = (UserPrincipal) authentication.getPrincipal();
+
+        // Accepted and journaled orders are written to the database shortly
+        boolean async = orderIntakeService.isEnabled();
+        Supplier<OrderDTO.OrderResponse> create = async
+                ? () -> orderIntakeService.submit(user.getId(), request)
+                : () -> orderService.createOrder(user.getId(), request);
+
+        // Retries with the same key get the original order instead of a duplicate
+        OrderDTO.OrderResponse order = idempotencyKey != null
+                ? idempotencyService.execute(user.getId(), idempotencyKey, request, OrderDTO.OrderResponse.class, create)
+                : create.get();
+        return ResponseEntity.status(async ? HttpStatus.ACCEPTED : HttpStatus.CREATED).body(order);
     }
 
     @GetMapping("/{id}")
@@ -43,7 +64,7 @@ public class OrderController {
     public ResponseEntity<OrderDTO.OrderResponse> getOrderById(
             @PathVariable Long id,
             Authentication authentication) {
-        User user = (User) authentication.getPrincipal();
+        UserPrincipal user = (UserPrincipal) authentication.getPrincipal();
         OrderDTO.OrderResponse order = orderService.getOrderById(id, user.getId());
         return ResponseEntity.ok(order);
     }
@@ -54,17 +75,37 @@ public class OrderController {
             Authentication authentication,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
-        User user = (User) authentication.getPrincipal();
+        UserPrincipal user = (UserPrincipal) authentication.getPrincipal();
         Page<OrderDTO.OrderSummaryResponse> orders = 
             orderService.getUserOrders(user.getId(), page, size);
         return ResponseEntity.ok(orders);
     }
 
+    @GetMapping("/history")
+    @Operation(summary = "Get order history with cursor pagination")
+    public ResponseEntity<OrderDTO.OrderHistoryPage> getOrderHistory(
+            Authentication authentication,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        UserPrincipal user = (UserPrincipal) authentication.getPrincipal();
+        OrderDTO.OrderHistoryPage history = orderService.getOrderHistory(user.getId(), cursor, size);
+        return ResponseEntity.ok(history);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream status changes of the user's orders (Server-Sent Events)")
+    public SseEmitter streamOrderEvents(
+            Authentication authentication,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        UserPrincipal user = (UserPrincipal) authentication.getPrincipal();
+        return orderEventStream.subscribe(user.getId(), lastEventId);
+    }
+
     @GetMapping("/active")
     @Operation(summary = "Get active orders")
     public ResponseEntity<List<OrderDTO.OrderResponse>> getActiveOrders(
             Authentication authentication) {
-        User user = (User) authentication.getPrincipal();
+        UserPrincipal user = (UserPrincipal) authentication.getPrincipal();
         List<OrderDTO.OrderResponse> orders = orderService.getActiveOrders(user.getId());
         return ResponseEntity.ok(orders);
     }
@@ -78,12 +119,21 @@ public class OrderController {
         return ResponseEntity.ok(order);
     }
 
+    @PatchMapping("/status")
+    @PreAuthorize("hasAnyRole('BARISTA', 'DELIVERY_PERSON', 'ADMIN')")
+    @Operation(summary = "Update the status of several orders at once (Staff only)")
+    public ResponseEntity<OrderDTO.BulkUpdateOrderStatusResponse> bulkUpdateOrderStatus(
+            @Valid @RequestBody OrderDTO.BulkUpdateOrderStatusRequest request) {
+        OrderDTO.BulkUpdateOrderStatusResponse response = orderService.bulkUpdateOrderStatus(request);
+        return ResponseEntity.ok(response);
+    }
+
     @PostMapping("/{id}/cancel")
     @Operation(summary = "Cancel order")
     public ResponseEntity<OrderDTO.OrderResponse> cancelOrder(
             @PathVariable Long id,
             Authentication authentication) {
-        User user = (User) authentication.getPrincipal();
+        UserPrincipal user = (UserPrincipal) authentication.getPrincipal();
         OrderDTO.OrderResponse order = orderService.cancelOrder(id, user.getId());
         return ResponseEntity.ok(order);
     }
@@ -43,6 +43,12 @@ public class ProductController {
         return ResponseEntity.ok(product);
     }
 
+    @GetMapping("/{id}/modifiers")
+    @Operation(summary = "Get modifier options for a product")
+    public ResponseEntity<List<ProductDTO.ModifierGroupResponse>> getProductModifiers(@PathVariable Long id) {
+        return ResponseEntity.ok(productService.getProductModifiers(id));
+    }
+
     @GetMapping("/category/{category}")
     @Operation(summary = "Get products by category")
     public ResponseEntity<Page<ProductDTO.ProductResponse>> getProductsByCategory(
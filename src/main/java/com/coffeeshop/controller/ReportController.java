@@ -0,0 +1,88 @@
+package com.coffeeshop.controller;
+
+import com.coffeeshop.dto.ReportDTO;
+import com.coffeeshop.service.SalesReportService;
+import com.coffeeshop.service.SalesRollupService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * REST controller for sales reports, served from rollup tables.
+ */
+@RestController
+@RequestMapping("/api/v1/admin/reports")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@SecurityRequirement(name = "bearer-jwt")
+@Tag(name = "Reports", description = "Sales reporting APIs")
+public class ReportController {
+
+    private final SalesReportService salesReportService;
+    private final SalesRollupService salesRollupService;
+
+    @GetMapping("/sales/summary")
+    @Operation(summary = "Get sales totals for a date range (Admin only)")
+    public ResponseEntity<ReportDTO.SalesSummary> getSummary(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(salesReportService.getSummary(from, to));
+    }
+
+    @GetMapping("/sales/daily")
+    @Operation(summary = "Get daily sales for a date range (Admin only)")
+    public ResponseEntity<List<ReportDTO.SalesBucket>> getDailySales(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(salesReportService.getDailySales(from, to));
+    }
+
+    @GetMapping("/sales/hourly")
+    @Operation(summary = "Get hourly sales for a day (Admin only)")
+    public ResponseEntity<List<ReportDTO.SalesBucket>> getHourlySales(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(salesReportService.getHourlySales(date));
+    }
+
+    @GetMapping("/sales/products")
+    @Operation(summary = "Get top-selling products for a date range (Admin only)")
+    public ResponseEntity<List<ReportDTO.ProductSales>> getTopProducts(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(salesReportService.getTopProducts(from, to, limit));
+    }
+
+    @GetMapping("/sales/categories")
+    @Operation(summary = "Get sales by category for a date range (Admin only)")
+    public ResponseEntity<List<ReportDTO.CategorySales>> getCategorySales(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(salesReportService.getCategorySales(from, to));
+    }
+
+    @GetMapping("/modifiers/hourly")
+    @Operation(summary = "Get hourly delivered modifier quantities for a day (Admin only)")
+    public ResponseEntity<List<ReportDTO.ModifierDemand>> getHourlyModifierDemand(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) Integer modifierId) {
+        return ResponseEntity.ok(salesReportService.getHourlyModifierDemand(date, modifierId));
+    }
+
+    @PostMapping("/sales/backfill")
+    @Operation(summary = "Roll up historical orders into the sales reports (Admin only)")
+    public ResponseEntity<Void> backfill(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        salesRollupService.startBackfill(from, to);
+        return ResponseEntity.accepted().build();
+    }
+}
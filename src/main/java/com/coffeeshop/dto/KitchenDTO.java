@@ -0,0 +1,40 @@
+package com.coffeeshop.dto;
+
+import com.coffeeshop.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTOs for kitchen queue operations.
+ */
+public class KitchenDTO {
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class QueueResponse {
+        private int baristas;
+        private int orderCount;
+        private long backlogMinutes;
+        private List<QueueEntry> orders;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class QueueEntry {
+        private Long orderId;
+        private String orderNumber;
+        private OrderStatus status;
+        private int itemCount;
+        private long prepMinutes;
+        private LocalDateTime estimatedReadyTime;
+    }
+}
@@ -70,6 +70,10 @@ public class OrderDTO {
 
         private CoffeeSize size;
 
+        // Ids from GET /api/v1/products/{id}/modifiers
+        @Size(max = 10, message = "At most 10 modifiers per item")
+        private List<Integer> modifierIds;
+
         @Size(max = 500, message = "Customizations must not exceed 500 characters")
         private String customizations;
 
@@ -89,6 +93,8 @@ public class OrderDTO {
         private Integer quantity;
         private BigDecimal price;
         private CoffeeSize size;
+        private List<Integer> modifierIds;
+        private List<String> modifiers;
         private String customizations;
         private String notes;
     }
@@ -102,6 +108,42 @@ public class OrderDTO {
         private OrderStatus status;
     }
 
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BulkUpdateOrderStatusRequest {
+        @NotEmpty(message = "At least one order ID is required")
+        @Size(max = 200, message = "At most 200 orders can be updated at once")
+        private List<@NotNull Long> orderIds;
+
+        @NotNull(message = "Status is required")
+        private OrderStatus status;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BulkUpdateOrderStatusResponse {
+        private OrderStatus status;
+        private int requested;
+        private int updated;
+        private List<OrderStatusOutcome> results;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OrderStatusOutcome {
+        private Long orderId;
+        private boolean updated;
+        // Status after the request, null if the order does not exist
+        private OrderStatus status;
+        private String error;
+    }
+
     @Data
     @Builder
     @NoArgsConstructor
@@ -113,5 +155,67 @@ public class OrderDTO {
         private OrderStatus status;
         private BigDecimal totalAmount;
         private int itemCount;
+
+        /**
+         * Constructor for JPQL projections, where the item count is an aggregate.
+         */
+        public OrderSummaryResponse(Long id, String orderNumber, LocalDateTime orderDate,
+                                    OrderStatus status, BigDecimal totalAmount, Long itemCount) {
+            this(id, orderNumber, orderDate, status, totalAmount, itemCount.intValue());
+        }
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OrderHistoryPage {
+        private List<OrderSummaryResponse> orders;
+        private String nextCursor;
+        private boolean hasMore;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OrderStatusEvent {
+        private Long orderId;
+        private String orderNumber;
+        private OrderStatus status;
+        private LocalDateTime estimatedDeliveryTime;
+        private LocalDateTime actualDeliveryTime;
+        private LocalDateTime changedAt;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OrderExportRow {
+        private Long id;
+        private String orderNumber;
+        private LocalDateTime orderDate;
+        private Long userId;
+        private OrderStatus status;
+        private PaymentMethod paymentMethod;
+        private Boolean paid;
+        private BigDecimal subtotal;
+        private BigDecimal tax;
+        private BigDecimal deliveryFee;
+        private BigDecimal totalAmount;
+        private LocalDateTime actualDeliveryTime;
+        private List<OrderExportItem> items;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OrderExportItem {
+        private Long productId;
+        private Integer quantity;
+        private BigDecimal price;
+        private CoffeeSize size;
     }
 }
@@ -9,6 +9,7 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * DTOs for Product operations.
@@ -95,4 +96,26 @@ public class ProductDTO {
         private Integer calories;
         private LocalDateTime createdAt;
     }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ModifierGroupResponse {
+        private String code;
+        private String name;
+        private Integer maxSelections;
+        private List<ModifierOption> options;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ModifierOption {
+        private Integer id;
+        private String code;
+        private String name;
+        private BigDecimal priceDelta;
+    }
 }
@@ -0,0 +1,75 @@
+package com.coffeeshop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * DTOs for sales reports.
+ */
+public class ReportDTO {
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SalesBucket {
+        private LocalDateTime bucketStart;
+        private long deliveredOrders;
+        private long cancelledOrders;
+        private BigDecimal revenue;
+        private long itemsSold;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SalesSummary {
+        private LocalDate from;
+        private LocalDate to;
+        private long deliveredOrders;
+        private long cancelledOrders;
+        private BigDecimal revenue;
+        private long itemsSold;
+        private BigDecimal averageOrderValue;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ProductSales {
+        private Long productId;
+        private String productName;
+        private long quantity;
+        private BigDecimal revenue;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CategorySales {
+        private String category;
+        private long quantity;
+        private BigDecimal revenue;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ModifierDemand {
+        private LocalDateTime bucketStart;
+        private Integer modifierId;
+        private String modifierCode;
+        private String modifierName;
+        private long quantity;
+    }
+}
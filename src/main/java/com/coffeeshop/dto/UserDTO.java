@@ -1,14 +1,18 @@
 package com.coffeeshop.dto;
 
 import com.coffeeshop.enums.UserRole;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * DTOs for User operations.
@@ -62,4 +66,46 @@ public class UserDTO {
         private int activeOrders;
         private LocalDateTime memberSince;
     }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ImportUserRequest {
+        @NotBlank(message = "Full name is required")
+        @Size(min = 2, max = 100, message = "Full name must be between 2 and 100 characters")
+        private String fullName;
+
+        @NotBlank(message = "Email is required")
+        @Email(message = "Invalid email format")
+        private String email;
+
+        @NotBlank(message = "Password is required")
+        @Size(min = 8, message = "Password must be at least 8 characters")
+        private String password;
+
+        private String phoneNumber;
+        private String address;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BulkImportRequest {
+        @NotEmpty(message = "At least one user is required")
+        @Size(max = 50000, message = "At most 50000 users can be imported at once")
+        private List<@Valid ImportUserRequest> users;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BulkImportResponse {
+        private int requested;
+        private int imported;
+        private int skipped;
+        private List<String> skippedEmails;
+    }
 }
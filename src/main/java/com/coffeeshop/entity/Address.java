@@ -15,6 +15,13 @@ import lombok.*;
 @Builder
 public class Address extends BaseEntity {
 
+    // Pooled sequence; unlike IDENTITY it allows insert batching
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "address_id")
+    @SequenceGenerator(name = "address_id", sequenceName = IdSequences.ADDRESS,
+            allocationSize = IdSequences.ALLOCATION_SIZE)
+    private Long id;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
@@ -11,6 +11,7 @@ import java.time.LocalDateTime;
 
 /**
  * Base entity class providing common audit fields for all entities.
+ * Ids are declared by each entity, each with its own pooled sequence (see {@link IdSequences}).
  */
 @MappedSuperclass
 @EntityListeners(AuditingEntityListener.class)
@@ -18,10 +19,6 @@ import java.time.LocalDateTime;
 @Setter
 public abstract class BaseEntity {
 
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
-
     @CreatedDate
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,21 @@
+package com.coffeeshop.entity;
+
+/**
+ * Names and allocation size of the pooled id sequences created by the V4 migration.
+ * Shared by the entity mappings and by code that allocates ids outside Hibernate.
+ */
+public final class IdSequences {
+
+    // Must match INCREMENT BY of every sequence
+    public static final int ALLOCATION_SIZE = 50;
+
+    public static final String USER = "user_seq";
+    public static final String PRODUCT = "product_seq";
+    public static final String ADDRESS = "address_seq";
+    public static final String ORDER = "order_seq";
+    public static final String ORDER_ITEM = "orderitem_seq";
+    public static final String REVIEW = "review_seq";
+
+    private IdSequences() {
+    }
+}
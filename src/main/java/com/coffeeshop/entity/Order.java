@@ -26,6 +26,13 @@ import java.util.List;
 @Builder
 public class Order extends BaseEntity {
 
+    // Pooled sequence; unlike IDENTITY it allows insert batching
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_id")
+    @SequenceGenerator(name = "order_id", sequenceName = IdSequences.ORDER,
+            allocationSize = IdSequences.ALLOCATION_SIZE)
+    private Long id;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
@@ -83,18 +90,6 @@ public class Order extends BaseEntity {
     @Builder.Default
     private List<OrderItem> orderItems = new ArrayList<>();
 
-    /**
-     * Calculate and update order totals.
-     */
-    public void calculateTotals() {
-        this.subtotal = orderItems.stream()
-            .map(item -> item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        this.tax = subtotal.multiply(BigDecimal.valueOf(0.1)); // 10% tax
-        this.totalAmount = subtotal.add(tax).add(deliveryFee);
-    }
-
     /**
      * Add order item to order.
      */
@@ -3,6 +3,8 @@ package com.coffeeshop.entity;
 import com.coffeeshop.enums.CoffeeSize;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.math.BigDecimal;
 
@@ -18,6 +20,13 @@ import java.math.BigDecimal;
 @Builder
 public class OrderItem extends BaseEntity {
 
+    // Pooled sequence; unlike IDENTITY it allows insert batching
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_item_id")
+    @SequenceGenerator(name = "order_item_id", sequenceName = IdSequences.ORDER_ITEM,
+            allocationSize = IdSequences.ALLOCATION_SIZE)
+    private Long id;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "order_id", nullable = false)
     private Order order;
@@ -35,6 +44,11 @@ public class OrderItem extends BaseEntity {
     @Enumerated(EnumType.STRING)
     private CoffeeSize size;
 
+    // Sorted ids from the modifier catalog
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "modifier_ids")
+    private short[] modifierIds;
+
     @Column(name = "customizations", length = 500)
     private String customizations;
 
@@ -23,6 +23,13 @@ import java.util.List;
 @Builder
 public class Product extends BaseEntity {
 
+    // Pooled sequence; unlike IDENTITY it allows insert batching
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_id")
+    @SequenceGenerator(name = "product_id", sequenceName = IdSequences.PRODUCT,
+            allocationSize = IdSequences.ALLOCATION_SIZE)
+    private Long id;
+
     @Column(nullable = false)
     private String name;
 
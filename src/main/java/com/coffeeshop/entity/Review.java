@@ -18,6 +18,13 @@ import lombok.*;
 @Builder
 public class Review extends BaseEntity {
 
+    // Pooled sequence; unlike IDENTITY it allows insert batching
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "review_id")
+    @SequenceGenerator(name = "review_id", sequenceName = IdSequences.REVIEW,
+            allocationSize = IdSequences.ALLOCATION_SIZE)
+    private Long id;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id", nullable = false)
     private Product product;
@@ -1,6 +1,8 @@
 package com.coffeeshop.entity;
 
 import com.coffeeshop.enums.UserRole;
+import com.coffeeshop.security.UserPrincipal;
+import com.coffeeshop.security.UserPrincipalEvictionListener;
 import jakarta.persistence.*;
 import lombok.*;
 import org.springframework.security.core.GrantedAuthority;
@@ -15,6 +17,7 @@ import java.util.List;
  * Implements UserDetails for Spring Security integration.
  */
 @Entity
+@EntityListeners(UserPrincipalEvictionListener.class)
 @Table(name = "users", indexes = {
     @Index(name = "idx_email", columnList = "email"),
     @Index(name = "idx_phone", columnList = "phone_number")
@@ -24,7 +27,14 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class User extends BaseEntity implements UserDetails {
+public class User extends BaseEntity implements UserDetails, UserPrincipal {
+
+    // Pooled sequence; unlike IDENTITY it allows insert batching
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_id")
+    @SequenceGenerator(name = "user_id", sequenceName = IdSequences.USER,
+            allocationSize = IdSequences.ALLOCATION_SIZE)
+    private Long id;
 
     @Column(nullable = false)
     private String fullName;
@@ -64,6 +74,10 @@ public class User extends BaseEntity implements UserDetails {
     @Column(nullable = false)
     private Boolean credentialsNonExpired = true;
 
+    @Builder.Default
+    @Column(name = "token_version", nullable = false)
+    private Long tokenVersion = 0L;
+
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Order> orders;
 
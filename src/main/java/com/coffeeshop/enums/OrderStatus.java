@@ -1,5 +1,11 @@
 package com.coffeeshop.enums;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * Order status lifecycle.
  */
@@ -11,5 +17,48 @@ public enum OrderStatus {
     OUT_FOR_DELIVERY, // Out for delivery
     DELIVERED,        // Successfully delivered
     CANCELLED,        // Cancelled by user or system
-    FAILED           // Failed/rejected
+    FAILED;           // Failed/rejected
+
+    private static final Map<OrderStatus, Set<OrderStatus>> TRANSITIONS = new EnumMap<>(OrderStatus.class);
+    private static final Map<OrderStatus, Set<OrderStatus>> PREDECESSORS = new EnumMap<>(OrderStatus.class);
+
+    static {
+        TRANSITIONS.put(PENDING, EnumSet.of(CONFIRMED, CANCELLED, FAILED));
+        TRANSITIONS.put(CONFIRMED, EnumSet.of(PREPARING, CANCELLED, FAILED));
+        TRANSITIONS.put(PREPARING, EnumSet.of(READY, CANCELLED, FAILED));
+        // READY -> DELIVERED covers in-store pickup
+        TRANSITIONS.put(READY, EnumSet.of(OUT_FOR_DELIVERY, DELIVERED, CANCELLED, FAILED));
+        TRANSITIONS.put(OUT_FOR_DELIVERY, EnumSet.of(DELIVERED, FAILED));
+        TRANSITIONS.put(DELIVERED, EnumSet.noneOf(OrderStatus.class));
+        TRANSITIONS.put(CANCELLED, EnumSet.noneOf(OrderStatus.class));
+        TRANSITIONS.put(FAILED, EnumSet.noneOf(OrderStatus.class));
+
+        for (OrderStatus status : values()) {
+            PREDECESSORS.put(status, EnumSet.noneOf(OrderStatus.class));
+        }
+        TRANSITIONS.forEach((from, targets) -> targets.forEach(to -> PREDECESSORS.get(to).add(from)));
+        TRANSITIONS.replaceAll((status, targets) -> Collections.unmodifiableSet(targets));
+        PREDECESSORS.replaceAll((status, sources) -> Collections.unmodifiableSet(sources));
+    }
+
+    /**
+     * Whether an order in this status may move to the target status.
+     */
+    public boolean canTransitionTo(OrderStatus target) {
+        return TRANSITIONS.get(this).contains(target);
+    }
+
+    /**
+     * Statuses from which an order may move to this status.
+     */
+    public Set<OrderStatus> allowedPredecessors() {
+        return PREDECESSORS.get(this);
+    }
+
+    /**
+     * Whether the order lifecycle has ended.
+     */
+    public boolean isTerminal() {
+        return TRANSITIONS.get(this).isEmpty();
+    }
 }
@@ -0,0 +1,11 @@
+package com.coffeeshop.exception;
+
+/**
+ * Exception thrown when a request conflicts with the current state of a resource,
+ * e.g. an illegal order status transition.
+ */
+public class ConflictException extends RuntimeException {
+    public ConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package com.coffeeshop.exception;
+
+/**
+ * Exception thrown when a request is rejected because a bounded resource is saturated.
+ */
+public class TooManyRequestsException extends RuntimeException {
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+}
@@ -1,18 +1,27 @@
 package com.coffeeshop.repository;
 
+import com.coffeeshop.dto.OrderDTO;
 import com.coffeeshop.entity.Order;
 import com.coffeeshop.entity.User;
 import com.coffeeshop.enums.OrderStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Order entity operations.
@@ -20,9 +29,17 @@ import java.util.Optional;
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
+    /**
+     * Find order by ID with its items, products and delivery address in one query.
+     */
+    @Override
+    @EntityGraph(attributePaths = {"orderItems", "orderItems.product", "deliveryAddress"})
+    Optional<Order> findById(Long id);
+
     /**
      * Find order by order number.
      */
+    @EntityGraph(attributePaths = {"orderItems", "orderItems.product", "deliveryAddress"})
     Optional<Order> findByOrderNumber(String orderNumber);
 
     /**
@@ -35,6 +52,42 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      */
     Page<Order> findByUserId(Long userId, Pageable pageable);
 
+    /**
+     * Order history summaries for a user, with item counts, in one statement.
+     * The count is a correlated subquery so it only runs for rows on the requested page.
+     */
+    @Query(value = "SELECT new com.coffeeshop.dto.OrderDTO$OrderSummaryResponse(" +
+                   "o.id, o.orderNumber, o.orderDate, o.status, o.totalAmount, " +
+                   "(SELECT COUNT(i) FROM OrderItem i WHERE i.order = o)) " +
+                   "FROM Order o WHERE o.user.id = :userId",
+           countQuery = "SELECT COUNT(o) FROM Order o WHERE o.user.id = :userId")
+    Page<OrderDTO.OrderSummaryResponse> findSummariesByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * First page of a user's order history for keyset pagination, newest first.
+     */
+    @Query("SELECT new com.coffeeshop.dto.OrderDTO$OrderSummaryResponse(" +
+           "o.id, o.orderNumber, o.orderDate, o.status, o.totalAmount, " +
+           "(SELECT COUNT(i) FROM OrderItem i WHERE i.order = o)) " +
+           "FROM Order o WHERE o.user.id = :userId " +
+           "ORDER BY o.orderDate DESC, o.id DESC")
+    List<OrderDTO.OrderSummaryResponse> findHistoryFirstPage(@Param("userId") Long userId, Limit limit);
+
+    /**
+     * Page of a user's order history strictly after the given (order date, id) position.
+     * The redundant date bound lets PostgreSQL prune newer partitions.
+     */
+    @Query("SELECT new com.coffeeshop.dto.OrderDTO$OrderSummaryResponse(" +
+           "o.id, o.orderNumber, o.orderDate, o.status, o.totalAmount, " +
+           "(SELECT COUNT(i) FROM OrderItem i WHERE i.order = o)) " +
+           "FROM Order o WHERE o.user.id = :userId " +
+           "AND (o.orderDate, o.id) < (:orderDate, :id) AND o.orderDate <= :orderDate " +
+           "ORDER BY o.orderDate DESC, o.id DESC")
+    List<OrderDTO.OrderSummaryResponse> findHistoryPageAfter(@Param("userId") Long userId,
+                                                             @Param("orderDate") LocalDateTime orderDate,
+                                                             @Param("id") Long id,
+                                                             Limit limit);
+
     /**
      * Find orders by status.
      */
@@ -59,19 +112,122 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findOrdersBetweenDates(@Param("startDate") LocalDateTime startDate,
                                         @Param("endDate") LocalDateTime endDate);
 
+    /**
+     * Stream orders within [from, to) for export. Rows are fetched from a
+     * server-side cursor in chunks and not tracked for changes; callers must
+     * consume the stream inside a transaction and close it.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT o FROM Order o WHERE o.orderDate >= :from AND o.orderDate < :to ORDER BY o.orderDate, o.id")
+    Stream<Order> streamOrdersBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
     /**
      * Count orders by status.
      */
     long countByStatus(OrderStatus status);
 
     /**
-     * Find active orders for user.
+     * Find active orders for user, with items, products and delivery address in one query.
+     * Not bounded by date: an order can stay active for any length of time, and
+     * archiving never takes a month with active orders, so all of them are in {@code orders}.
      */
+    @EntityGraph(attributePaths = {"orderItems", "orderItems.product", "deliveryAddress"})
     @Query("SELECT o FROM Order o WHERE o.user.id = :userId AND " +
            "o.status IN ('PENDING', 'CONFIRMED', 'PREPARING', 'READY', 'OUT_FOR_DELIVERY') " +
            "ORDER BY o.orderDate DESC")
     List<Order> findActiveOrdersByUserId(@Param("userId") Long userId);
 
+    /**
+     * Move an order to a new status only if it is currently in one of the allowed
+     * statuses, without reading it first. Returns the number of updated rows (0 or 1).
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :status, " +
+           "o.actualDeliveryTime = COALESCE(:deliveredAt, o.actualDeliveryTime), " +
+           "o.updatedAt = :now, o.version = o.version + 1 " +
+           "WHERE o.id = :orderId AND o.status IN :allowedFrom")
+    int transitionStatus(@Param("orderId") Long orderId,
+                         @Param("allowedFrom") Collection<OrderStatus> allowedFrom,
+                         @Param("status") OrderStatus status,
+                         @Param("deliveredAt") LocalDateTime deliveredAt,
+                         @Param("now") LocalDateTime now);
+
+    /**
+     * Same as {@link #transitionStatus}, restricted to orders of the given user.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :status, " +
+           "o.updatedAt = :now, o.version = o.version + 1 " +
+           "WHERE o.id = :orderId AND o.user.id = :userId AND o.status IN :allowedFrom")
+    int transitionUserOrderStatus(@Param("orderId") Long orderId,
+                                  @Param("userId") Long userId,
+                                  @Param("allowedFrom") Collection<OrderStatus> allowedFrom,
+                                  @Param("status") OrderStatus status,
+                                  @Param("now") LocalDateTime now);
+
+    /**
+     * Current status and owner of an order, used to explain a rejected transition.
+     */
+    @Query("SELECT o.id AS id, o.status AS status, o.user.id AS userId FROM Order o WHERE o.id = :orderId")
+    Optional<StatusView> findStatusById(@Param("orderId") Long orderId);
+
+    /**
+     * Current status and owner of several orders; missing ids are left out.
+     */
+    @Query("SELECT o.id AS id, o.status AS status, o.user.id AS userId FROM Order o WHERE o.id IN :orderIds")
+    List<StatusView> findStatusesByIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    /**
+     * Find orders by ID with items, products and delivery addresses in one query.
+     */
+    @EntityGraph(attributePaths = {"orderItems", "orderItems.product", "deliveryAddress"})
+    List<Order> findByIdIn(Collection<Long> ids);
+
+    interface StatusView {
+        Long getId();
+
+        OrderStatus getStatus();
+
+        Long getUserId();
+    }
+
+    /**
+     * Store the rendered response of a terminal order, unless one is already stored.
+     */
+    @Modifying
+    @Query(value = "UPDATE orders SET response_snapshot = CAST(:snapshot AS jsonb) " +
+                   "WHERE id = :orderId AND response_snapshot IS NULL", nativeQuery = true)
+    int saveResponseSnapshot(@Param("orderId") Long orderId, @Param("snapshot") String snapshot);
+
+    /**
+     * Owner and stored response snapshot (null if none) of an order, in a single-row read.
+     * Falls back to {@code orders_archive}, where every archived order has a snapshot.
+     */
+    @Query(value = "SELECT user_id AS userId, CAST(response_snapshot AS text) AS snapshot " +
+                   "FROM orders WHERE id = :orderId " +
+                   "UNION ALL " +
+                   "SELECT user_id, CAST(response_snapshot AS text) " +
+                   "FROM orders_archive WHERE id = :orderId " +
+                   "LIMIT 1", nativeQuery = true)
+    Optional<SnapshotView> findSnapshotById(@Param("orderId") Long orderId);
+
+    interface SnapshotView {
+        Long getUserId();
+
+        String getSnapshot();
+    }
+
+    /**
+     * Orders in the given statuses with items and products, oldest first, for rebuilding the kitchen queue.
+     */
+    @EntityGraph(attributePaths = {"orderItems", "orderItems.product"})
+    @Query("SELECT o FROM Order o WHERE o.status IN :statuses ORDER BY o.orderDate ASC, o.id ASC")
+    List<Order> findKitchenOrders(@Param("statuses") Collection<OrderStatus> statuses);
+
     /**
      * Calculate total revenue between dates.
      */
@@ -2,6 +2,7 @@ package com.coffeeshop.repository;
 
 import com.coffeeshop.entity.User;
 import com.coffeeshop.enums.UserRole;
+import com.coffeeshop.security.TokenVersionState;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -53,4 +54,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
            "LOWER(u.fullName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            "LOWER(u.email) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
     List<User> searchUsers(@Param("searchTerm") String searchTerm);
+
+    /**
+     * Find token revocation state of users that differ from the default
+     * (bumped token version, disabled, locked or expired).
+     */
+    @Query("SELECT new com.coffeeshop.security.TokenVersionState(" +
+           "u.id, u.tokenVersion, u.enabled, u.accountNonLocked, u.accountNonExpired) " +
+           "FROM User u WHERE u.tokenVersion > 0 OR u.enabled = false OR " +
+           "u.accountNonLocked = false OR u.accountNonExpired = false")
+    List<TokenVersionState> findNonDefaultTokenVersions();
 }
@@ -0,0 +1,32 @@
+package com.coffeeshop.security;
+
+import com.coffeeshop.enums.UserRole;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Lightweight principal built entirely from verified JWT claims.
+ */
+@Getter
+@AllArgsConstructor
+public class ClaimsPrincipal implements UserPrincipal, AuthenticatedPrincipal {
+
+    private final Long id;
+    private final String email;
+    private final UserRole role;
+
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -1,10 +1,12 @@
 package com.coffeeshop.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -25,6 +27,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final UserPrincipalCache principalCache;
+    private final TokenVersionRegistry tokenVersionRegistry;
+
+    @Value("${jwt.stateless.enabled:false}")
+    private boolean statelessEnabled;
+
+    @Value("${jwt.skip-public-routes:true}")
+    private boolean skipPublicRoutes;
+
+    /**
+     * Public catalog requests never read the principal, so skip token processing
+     * even when the client sends a bearer token.
+     */
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return skipPublicRoutes && PublicRoutes.NO_PRINCIPAL.matches(request);
+    }
 
     @Override
     protected void doFilterInternal(
@@ -47,20 +66,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         jwt = authHeader.substring(7);
 
         try {
-            // Extract user email from token
-            userEmail = jwtUtil.extractUsername(jwt);
+            // Verify token once and extract user email
+            Claims claims = jwtUtil.verifyToken(jwt);
+            userEmail = claims.getSubject();
 
             // If user email is present and user is not already authenticated
             if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(userEmail);
-
-                // Validate token
-                if (jwtUtil.validateToken(jwt, userDetails)) {
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities()
-                    );
+                UsernamePasswordAuthenticationToken authToken = useClaimsOnly(claims)
+                        ? authenticateFromClaims(claims)
+                        : authenticateFromUser(claims, userEmail);
+
+                if (authToken != null) {
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
                 }
@@ -72,4 +88,39 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    /**
+     * Claims-only mode applies to tokens carrying principal claims once token versions are loaded.
+     */
+    private boolean useClaimsOnly(Claims claims) {
+        return statelessEnabled && tokenVersionRegistry.isReady() && jwtUtil.hasPrincipalClaims(claims);
+    }
+
+    /**
+     * Build the authentication from claims without touching the database.
+     */
+    private UsernamePasswordAuthenticationToken authenticateFromClaims(Claims claims) {
+        ClaimsPrincipal principal = jwtUtil.toPrincipal(claims);
+        if (!tokenVersionRegistry.isCurrent(principal.getId(), jwtUtil.extractTokenVersion(claims))) {
+            return null;
+        }
+        return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+
+    /**
+     * Build the authentication from the (cached) user record.
+     */
+    private UsernamePasswordAuthenticationToken authenticateFromUser(Claims claims, String userEmail) {
+        UserDetails userDetails = principalCache.get(userEmail, userDetailsService::loadUserByUsername);
+
+        // Validate token
+        if (!jwtUtil.isTokenValid(claims, userDetails)) {
+            return null;
+        }
+        return new UsernamePasswordAuthenticationToken(
+                userDetails,
+                null,
+                userDetails.getAuthorities()
+        );
+    }
+}
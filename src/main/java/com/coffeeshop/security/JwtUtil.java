@@ -1,37 +1,78 @@
 package com.coffeeshop.security;
 
+import com.coffeeshop.entity.User;
+import com.coffeeshop.enums.UserRole;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 /**
  * JWT utility class for generating and validating JWT tokens.
+ * Verified claims are cached by token hash until the token expires, so a
+ * token is parsed and its signature checked at most once while it is hot.
+ * The cache is size-bounded (Caffeine), so eviction never scans it on the request path.
  */
 @Component
 public class JwtUtil {
 
+    private static final String CLAIM_USER_ID = "uid";
+    private static final String CLAIM_ROLE = "role";
+    private static final String CLAIM_TOKEN_VERSION = "ver";
+
     @Value("${jwt.secret:mySecretKeyForJWTTokenGenerationThatIsAtLeast256BitsLong}")
     private String secret;
 
     @Value("${jwt.expiration:86400000}") // 24 hours
     private Long expiration;
 
+    @Value("${jwt.claims-cache.max-size:10000}")
+    private int claimsCacheMaxSize;
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private Cache<TokenHash, VerifiedClaims> verifiedClaims;
+
+    private SecretKey signingKey;
+    private JwtParser parser;
+
     /**
-     * Get signing key.
+     * Build the signing key and parser once.
      */
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    @PostConstruct
+    void init() {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        this.verifiedClaims = Caffeine.newBuilder()
+                .maximumSize(Math.max(claimsCacheMaxSize, 0))
+                .expireAfter(new UntilTokenExpiry())
+                .build();
     }
 
     /**
@@ -52,33 +93,59 @@ public class JwtUtil {
      * Extract claim from token.
      */
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = verifyToken(token);
         return claimsResolver.apply(claims);
     }
 
     /**
-     * Extract all claims from token.
+     * Verify the token signature and return its claims.
+     * Served from the cache when the same token was verified before and has not expired.
+     */
+    public Claims verifyToken(String token) {
+        TokenHash key = TokenHash.of(token);
+        long now = System.currentTimeMillis();
+
+        VerifiedClaims cached = verifiedClaims.getIfPresent(key);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.claims();
+        }
+
+        // Throws on bad signature, malformed or expired token
+        Claims claims = parseClaims(token);
+        cacheClaims(key, claims);
+        return claims;
+    }
+
+    /**
+     * Parse and verify the token without consulting the cache.
      */
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    Claims parseClaims(String token) {
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     /**
-     * Check if token is expired.
+     * Cache verified claims until the token expires.
      */
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private void cacheClaims(TokenHash key, Claims claims) {
+        Date expiry = claims.getExpiration();
+        if (expiry == null || claimsCacheMaxSize <= 0) {
+            return;
+        }
+        verifiedClaims.put(key, new VerifiedClaims(claims, expiry.getTime()));
     }
 
     /**
      * Generate token for user.
+     * Tokens for application users carry id, role and token version so they can
+     * be authenticated from claims alone.
      */
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof User user) {
+            claims.put(CLAIM_USER_ID, user.getId());
+            claims.put(CLAIM_ROLE, user.getRole().name());
+            claims.put(CLAIM_TOKEN_VERSION, user.getTokenVersion());
+        }
         return createToken(claims, userDetails.getUsername());
     }
 
@@ -94,7 +161,7 @@ public class JwtUtil {
                 .subject(subject)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
@@ -102,7 +169,104 @@ public class JwtUtil {
      * Validate token.
      */
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return isTokenValid(verifyToken(token), userDetails);
+    }
+
+    /**
+     * Validate already verified claims against the user.
+     */
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername())
+                && claims.getExpiration().after(new Date())
+                && isVersionCurrent(claims, userDetails);
+    }
+
+    /**
+     * Check whether the claims carry everything needed for claims-only authentication.
+     */
+    public boolean hasPrincipalClaims(Claims claims) {
+        return claims.get(CLAIM_USER_ID) != null
+                && claims.get(CLAIM_ROLE) != null
+                && claims.get(CLAIM_TOKEN_VERSION) != null;
+    }
+
+    /**
+     * Extract the token version claim.
+     */
+    public Long extractTokenVersion(Claims claims) {
+        return claims.get(CLAIM_TOKEN_VERSION, Long.class);
+    }
+
+    /**
+     * Build a lightweight principal from verified claims.
+     */
+    public ClaimsPrincipal toPrincipal(Claims claims) {
+        return new ClaimsPrincipal(
+                claims.get(CLAIM_USER_ID, Long.class),
+                claims.getSubject(),
+                UserRole.valueOf(claims.get(CLAIM_ROLE, String.class)));
+    }
+
+    /**
+     * Tokens issued before the user's last token version bump are revoked.
+     */
+    private boolean isVersionCurrent(Claims claims, UserDetails userDetails) {
+        Long currentVersion;
+        if (userDetails instanceof UserPrincipalSnapshot snapshot) {
+            currentVersion = snapshot.getTokenVersion();
+        } else if (userDetails instanceof User user) {
+            currentVersion = user.getTokenVersion();
+        } else {
+            return true;
+        }
+        if (currentVersion == null || claims.get(CLAIM_TOKEN_VERSION) == null) {
+            return true;
+        }
+        return extractTokenVersion(claims) >= currentVersion;
+    }
+
+    /**
+     * SHA-256 digest of a token, used as the cache key so raw tokens are not retained.
+     */
+    private record TokenHash(byte[] digest) {
+
+        static TokenHash of(String token) {
+            return new TokenHash(SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII)));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof TokenHash other && Arrays.equals(digest, other.digest);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(digest);
+        }
+    }
+
+    private record VerifiedClaims(Claims claims, long expiresAt) {
+    }
+
+    /**
+     * Entries live until their token expires; reads do not extend them.
+     */
+    private static final class UntilTokenExpiry implements Expiry<TokenHash, VerifiedClaims> {
+
+        @Override
+        public long expireAfterCreate(TokenHash key, VerifiedClaims value, long currentTime) {
+            long remainingMillis = Math.max(value.expiresAt() - System.currentTimeMillis(), 0);
+            return TimeUnit.MILLISECONDS.toNanos(remainingMillis);
+        }
+
+        @Override
+        public long expireAfterUpdate(TokenHash key, VerifiedClaims value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(TokenHash key, VerifiedClaims value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
-}
\ No newline at end of file
+}
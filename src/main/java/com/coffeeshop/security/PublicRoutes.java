@@ -0,0 +1,44 @@
+package com.coffeeshop.security;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+/**
+ * Route patterns that do not require authentication.
+ */
+final class PublicRoutes {
+
+    /**
+     * Endpoints open to everyone regardless of method.
+     */
+    static final String[] PERMIT_ALL = {
+            "/api/v1/auth/**",
+            "/api/v1/products/search",
+            "/api/v1/products/featured",
+            "/api/v1/products/top-rated",
+            "/swagger-ui/**",
+            "/v3/api-docs/**",
+            "/swagger-resources/**",
+            "/webjars/**",
+            "/actuator/**"
+    };
+
+    /**
+     * Product catalog reads, open to everyone.
+     */
+    static final String CATALOG = "/api/v1/products/**";
+
+    /**
+     * Public routes that never read the principal, so JWT processing can be skipped.
+     */
+    static final RequestMatcher NO_PRINCIPAL = new OrRequestMatcher(
+            PathPatternRequestMatcher.withDefaults().matcher(HttpMethod.GET, CATALOG),
+            PathPatternRequestMatcher.withDefaults().matcher("/swagger-ui/**"),
+            PathPatternRequestMatcher.withDefaults().matcher("/v3/api-docs/**")
+    );
+
+    private PublicRoutes() {
+    }
+}
@@ -0,0 +1,167 @@
+package com.coffeeshop.security;
+
+import com.coffeeshop.exception.GlobalExceptionHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Per-user and per-IP token-bucket rate limiting.
+ * Authenticated requests are limited by user, anonymous ones by client IP
+ * (configure {@code server.forward-headers-strategy} when behind a proxy).
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${rate-limit.max-entries-per-policy:100000}")
+    private int maxEntriesPerPolicy;
+
+    @Value("${rate-limit.auth.capacity:20}")
+    private int authCapacity;
+
+    @Value("${rate-limit.auth.refill-per-second:0.5}")
+    private double authRefillPerSecond;
+
+    @Value("${rate-limit.catalog.capacity:60}")
+    private int catalogCapacity;
+
+    @Value("${rate-limit.catalog.refill-per-second:20}")
+    private double catalogRefillPerSecond;
+
+    @Value("${rate-limit.orders.capacity:30}")
+    private int ordersCapacity;
+
+    @Value("${rate-limit.orders.refill-per-second:5}")
+    private double ordersRefillPerSecond;
+
+    private List<Route> routes;
+
+    @PostConstruct
+    void init() {
+        RateLimitPolicy auth = new RateLimitPolicy(
+                "auth", authCapacity, authRefillPerSecond, maxEntriesPerPolicy);
+        RateLimitPolicy catalog = new RateLimitPolicy(
+                "catalog", catalogCapacity, catalogRefillPerSecond, maxEntriesPerPolicy);
+        RateLimitPolicy orders = new RateLimitPolicy(
+                "orders", ordersCapacity, ordersRefillPerSecond, maxEntriesPerPolicy);
+
+        PathPatternRequestMatcher.Builder paths = PathPatternRequestMatcher.withDefaults();
+
+        // First match wins
+        this.routes = List.of(
+                new Route(paths.matcher("/api/v1/auth/**"), auth),
+                new Route(paths.matcher(HttpMethod.GET, PublicRoutes.CATALOG), catalog),
+                new Route(paths.matcher("/api/v1/orders"), orders),
+                new Route(paths.matcher("/api/v1/orders/**"), orders)
+        );
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        RateLimitPolicy policy = findPolicy(request);
+        if (policy != null) {
+            long waitNanos = policy.tryAcquire(clientKey(request), System.nanoTime());
+            if (waitNanos > 0) {
+                meterRegistry.counter("security.rate-limit.rejected", "policy", policy.getName()).increment();
+                reject(request, response, waitNanos);
+                return;
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Drop fully refilled buckets so idle clients do not accumulate.
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.eviction-interval-ms:30000}")
+    public void evictIdleBuckets() {
+        if (routes == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        routes.stream()
+                .map(Route::policy)
+                .distinct()
+                .forEach(policy -> policy.evictIdle(now));
+    }
+
+    private RateLimitPolicy findPolicy(HttpServletRequest request) {
+        for (Route route : routes) {
+            if (route.matcher().matches(request)) {
+                return route.policy();
+            }
+        }
+        return null;
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, long waitNanos)
+            throws IOException {
+        long retryAfterSeconds = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+
+        GlobalExceptionHandler.ErrorResponse error = GlobalExceptionHandler.ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.TOO_MANY_REQUESTS.value())
+                .error("Too Many Requests")
+                .message("Rate limit exceeded, please retry later")
+                .path(request.getRequestURI())
+                .build();
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+
+    private record Route(RequestMatcher matcher, RateLimitPolicy policy) {
+    }
+}
@@ -0,0 +1,71 @@
+package com.coffeeshop.security;
+
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token-bucket rate limit policy with its own lock-free bucket store.
+ * Each bucket is a single theoretical-arrival-time value updated by CAS
+ * (GCRA), which behaves like a token bucket of {@code capacity} tokens
+ * refilled at {@code refillPerSecond}.
+ */
+public class RateLimitPolicy {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    @Getter
+    private final String name;
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final int maxEntries;
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    public RateLimitPolicy(String name, int capacity, double refillPerSecond, int maxEntries) {
+        this.name = name;
+        this.intervalNanos = (long) (NANOS_PER_SECOND / refillPerSecond);
+        this.burstNanos = intervalNanos * capacity;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Try to take one token for the key.
+     *
+     * @return 0 if allowed, otherwise nanoseconds until a token is available
+     */
+    public long tryAcquire(String key, long nowNanos) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxEntries) {
+                // Fail open rather than grow without bound
+                return 0;
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(Long.MIN_VALUE));
+        }
+
+        while (true) {
+            long arrival = bucket.get();
+            long next = Math.max(arrival, nowNanos) + intervalNanos;
+            long wait = next - nowNanos - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drop buckets that have fully refilled; they are equivalent to a new bucket.
+     */
+    public void evictIdle(long nowNanos) {
+        buckets.values().removeIf(bucket -> bucket.get() <= nowNanos);
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+}
@@ -0,0 +1,141 @@
+package com.coffeeshop.security;
+
+import com.coffeeshop.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory map of per-user token versions used by claims-only authentication.
+ * Only users that differ from the default (version 0, active) are kept; the map
+ * is refreshed incrementally from {@code users.token_change_xid} (V11).
+ * <p>
+ * The watermark is the xmin of a snapshot taken before each refresh query: every
+ * transaction below it had finished by then, so its changes are seen by the query,
+ * while changes of transactions still running are picked up by a later refresh.
+ * Unlike a timestamp watermark, this does not depend on how long a transaction ran.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TokenVersionRegistry {
+
+    private static final long REVOKED = -1L;
+
+    private static final String SNAPSHOT_XMIN_SQL =
+            "SELECT CAST(CAST(pg_snapshot_xmin(pg_current_snapshot()) AS text) AS bigint)";
+
+    private static final String CHANGED_SINCE_SQL =
+            "SELECT id, token_version, enabled, account_non_locked, account_non_expired " +
+            "FROM users WHERE token_change_xid >= CAST(CAST(? AS text) AS xid8)";
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${jwt.stateless.enabled:false}")
+    private boolean enabled;
+
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+    private volatile Long watermark;
+
+    /**
+     * Whether the initial load has completed.
+     */
+    public boolean isReady() {
+        return watermark != null;
+    }
+
+    /**
+     * Check whether a token version is still valid for the user.
+     */
+    public boolean isCurrent(Long userId, Long tokenVersion) {
+        if (tokenVersion == null) {
+            return false;
+        }
+        long current = versions.getOrDefault(userId, 0L);
+        return current != REVOKED && tokenVersion >= current;
+    }
+
+    /**
+     * Record a user's state once the current transaction commits.
+     */
+    public void record(TokenVersionState state) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(state);
+                }
+            });
+        } else {
+            apply(state);
+        }
+    }
+
+    /**
+     * Load or incrementally refresh token versions.
+     */
+    @Scheduled(fixedDelayString = "${jwt.stateless.refresh-interval-ms:10000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            if (watermark == null) {
+                loadAll();
+            } else {
+                loadUpdated();
+            }
+        } catch (Exception e) {
+            log.error("Failed to refresh token versions: {}", e.getMessage());
+        }
+    }
+
+    private void loadAll() {
+        Long xmin = snapshotXmin();
+        List<TokenVersionState> states = userRepository.findNonDefaultTokenVersions();
+        states.forEach(this::apply);
+        watermark = xmin;
+        log.info("Loaded token versions for {} users", states.size());
+    }
+
+    private void loadUpdated() {
+        // Taken before the query, so nothing committed below it can be missed
+        Long xmin = snapshotXmin();
+
+        List<TokenVersionState> changed = jdbcTemplate.query(CHANGED_SINCE_SQL,
+                (rs, rowNum) -> new TokenVersionState(
+                        rs.getLong(1),
+                        rs.getLong(2),
+                        rs.getBoolean(3),
+                        rs.getBoolean(4),
+                        rs.getBoolean(5)),
+                watermark);
+        changed.forEach(this::apply);
+        watermark = xmin;
+    }
+
+    private Long snapshotXmin() {
+        return jdbcTemplate.queryForObject(SNAPSHOT_XMIN_SQL, Long.class);
+    }
+
+    private void apply(TokenVersionState state) {
+        if (!state.active()) {
+            versions.put(state.userId(), REVOKED);
+        } else if (state.tokenVersion() != null && state.tokenVersion() > 0) {
+            versions.put(state.userId(), state.tokenVersion());
+        } else {
+            versions.remove(state.userId());
+        }
+    }
+}
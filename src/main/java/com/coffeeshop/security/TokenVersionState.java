@@ -0,0 +1,21 @@
+package com.coffeeshop.security;
+
+/**
+ * Token revocation state of a single user.
+ */
+public record TokenVersionState(
+        Long userId,
+        Long tokenVersion,
+        Boolean enabled,
+        Boolean accountNonLocked,
+        Boolean accountNonExpired) {
+
+    /**
+     * Whether tokens of this user may authenticate at all.
+     */
+    public boolean active() {
+        return Boolean.TRUE.equals(enabled)
+                && Boolean.TRUE.equals(accountNonLocked)
+                && Boolean.TRUE.equals(accountNonExpired);
+    }
+}
@@ -0,0 +1,16 @@
+package com.coffeeshop.security;
+
+import com.coffeeshop.enums.UserRole;
+
+/**
+ * Minimal view of the authenticated user needed by controllers.
+ * Implemented by the {@code User} entity and by {@link ClaimsPrincipal}.
+ */
+public interface UserPrincipal {
+
+    Long getId();
+
+    String getEmail();
+
+    UserRole getRole();
+}
@@ -0,0 +1,134 @@
+package com.coffeeshop.security;
+
+import com.coffeeshop.entity.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Bounded, TTL-based cache of authenticated principals keyed by email.
+ * Saves the per-request user lookup in {@link JwtAuthenticationFilter}.
+ * Users are cached as immutable {@link UserPrincipalSnapshot}s, and a user id
+ * to email index lets a user be evicted without scanning the cache.
+ */
+@Component
+public class UserPrincipalCache {
+
+    @Value("${security.principal-cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${security.principal-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private final MeterRegistry meterRegistry;
+    private final Counter hits;
+    private final Counter misses;
+
+    private Cache<String, CachedPrincipal> principals;
+    private final ConcurrentMap<Long, String> emailsByUserId = new ConcurrentHashMap<>();
+
+    public UserPrincipalCache(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.hits = Counter.builder("security.principal.cache.requests")
+                .tag("result", "hit")
+                .description("Principal lookups served from cache")
+                .register(meterRegistry);
+        this.misses = Counter.builder("security.principal.cache.requests")
+                .tag("result", "miss")
+                .description("Principal lookups that went to the database")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void init() {
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(Math.max(maxSize, 0))
+                .expireAfterWrite(Duration.ofSeconds(Math.max(ttlSeconds, 0)))
+                // Keep the index in step with entries dropped by size or age
+                .<String, CachedPrincipal>evictionListener((email, entry, cause) -> {
+                    if (email != null && entry != null && entry.userId() != null) {
+                        emailsByUserId.remove(entry.userId(), email);
+                    }
+                })
+                .build();
+        Gauge.builder("security.principal.cache.size", principals, Cache::estimatedSize)
+                .description("Number of cached principals")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Get the principal for an email, loading and caching it on a miss.
+     */
+    public UserDetails get(String email, Function<String, UserDetails> loader) {
+        CachedPrincipal cached = principals.getIfPresent(email);
+        if (cached != null) {
+            hits.increment();
+            return cached.userDetails();
+        }
+
+        misses.increment();
+        UserDetails userDetails = snapshot(loader.apply(email));
+        put(email, userDetails);
+        return userDetails;
+    }
+
+    /**
+     * Evict the cached principal for an email.
+     */
+    public void evict(String email) {
+        if (email != null) {
+            principals.invalidate(email);
+        }
+    }
+
+    /**
+     * Evict every cached principal of a user, including the entry under a previous email.
+     */
+    public void evictUser(Long userId, String email) {
+        evict(email);
+        if (userId != null) {
+            evict(emailsByUserId.remove(userId));
+        }
+    }
+
+    /**
+     * Evict all cached principals.
+     */
+    public void evictAll() {
+        principals.invalidateAll();
+        emailsByUserId.clear();
+    }
+
+    private void put(String email, UserDetails userDetails) {
+        if (maxSize <= 0 || ttlSeconds <= 0) {
+            return;
+        }
+
+        Long userId = userDetails instanceof UserPrincipal principal ? principal.getId() : null;
+        if (userId != null) {
+            String previous = emailsByUserId.put(userId, email);
+            if (previous != null && !previous.equals(email)) {
+                principals.invalidate(previous);
+            }
+        }
+        principals.put(email, new CachedPrincipal(userDetails, userId));
+    }
+
+    private static UserDetails snapshot(UserDetails userDetails) {
+        return userDetails instanceof User user ? UserPrincipalSnapshot.of(user) : userDetails;
+    }
+
+    private record CachedPrincipal(UserDetails userDetails, Long userId) {
+    }
+}
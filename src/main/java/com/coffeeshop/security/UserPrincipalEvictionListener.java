@@ -0,0 +1,38 @@
+package com.coffeeshop.security;
+
+import com.coffeeshop.entity.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener that evicts cached principals when a user changes,
+ * e.g. password, role, enabled or lock flags.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserPrincipalEvictionListener {
+
+    private final UserPrincipalCache principalCache;
+
+    @PostUpdate
+    @PostRemove
+    public void onUserChanged(User user) {
+        Long userId = user.getId();
+        String email = user.getEmail();
+        principalCache.evictUser(userId, email);
+
+        // Evict again once committed so a concurrent reload cannot cache the old row
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    principalCache.evictUser(userId, email);
+                }
+            });
+        }
+    }
+}
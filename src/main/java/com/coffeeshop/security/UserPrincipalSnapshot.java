@@ -0,0 +1,61 @@
+package com.coffeeshop.security;
+
+import com.coffeeshop.entity.User;
+import com.coffeeshop.enums.UserRole;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Immutable copy of the security-relevant fields of a {@link User}, safe to
+ * share between request threads through {@link UserPrincipalCache}.
+ * The password hash is not kept.
+ */
+@Getter
+public final class UserPrincipalSnapshot implements UserDetails, UserPrincipal {
+
+    private final Long id;
+    private final String email;
+    private final UserRole role;
+    private final Long tokenVersion;
+    private final boolean enabled;
+    private final boolean accountNonExpired;
+    private final boolean accountNonLocked;
+    private final boolean credentialsNonExpired;
+    private final List<GrantedAuthority> authorities;
+
+    private UserPrincipalSnapshot(User user) {
+        this.id = user.getId();
+        this.email = user.getEmail();
+        this.role = user.getRole();
+        this.tokenVersion = user.getTokenVersion();
+        this.enabled = user.isEnabled();
+        this.accountNonExpired = user.isAccountNonExpired();
+        this.accountNonLocked = user.isAccountNonLocked();
+        this.credentialsNonExpired = user.isCredentialsNonExpired();
+        this.authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    public static UserPrincipalSnapshot of(User user) {
+        return new UserPrincipalSnapshot(user);
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+}
@@ -7,8 +7,13 @@ import com.coffeeshop.exception.BadRequestException;
 import com.coffeeshop.exception.UnauthorizedException;
 import com.coffeeshop.repository.UserRepository;
 import com.coffeeshop.security.JwtUtil;
+import com.coffeeshop.security.TokenVersionRegistry;
+import com.coffeeshop.security.TokenVersionState;
+import com.coffeeshop.security.UserPrincipalCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -29,6 +34,8 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
     private final AuthenticationManager authenticationManager;
+    private final UserPrincipalCache principalCache;
+    private final TokenVersionRegistry tokenVersionRegistry;
 
     /**
      * Register a new user.
@@ -37,17 +44,7 @@ public class AuthService {
     public AuthDTO.AuthResponse register(AuthDTO.RegisterRequest request) {
         log.info("Registering new user with email: {}", request.getEmail());
 
-        // Check if user already exists
-        if (userRepository.existsByEmail(request.getEmail())) {
-            throw new BadRequestException("Email already registered");
-        }
-
-        if (request.getPhoneNumber() != null && 
-            userRepository.existsByPhoneNumber(request.getPhoneNumber())) {
-            throw new BadRequestException("Phone number already registered");
-        }
-
-        // Create new user
+        // Create new user; uniqueness is enforced by the insert itself
         User user = User.builder()
                 .fullName(request.getFullName())
                 .email(request.getEmail())
@@ -61,7 +58,11 @@ public class AuthService {
                 .credentialsNonExpired(true)
                 .build();
 
-        user = userRepository.save(user);
+        try {
+            user = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw toDuplicateUserException(e);
+        }
         log.info("User registered successfully with ID: {}", user.getId());
 
         // Generate JWT token
@@ -128,10 +129,39 @@ public class AuthService {
             throw new UnauthorizedException("Current password is incorrect");
         }
 
-        // Update password
+        // Update password and revoke previously issued tokens
         user.setPassword(passwordEncoder.encode(request.getNewPassword()));
+        user.setTokenVersion(user.getTokenVersion() + 1);
         userRepository.save(user);
+        principalCache.evictUser(user.getId(), user.getEmail());
+        tokenVersionRegistry.record(new TokenVersionState(
+                user.getId(),
+                user.getTokenVersion(),
+                user.getEnabled(),
+                user.getAccountNonLocked(),
+                user.getAccountNonExpired()));
 
         log.info("Password changed successfully for user ID: {}", userId);
     }
+
+    /**
+     * Map a unique constraint violation on users to a user-facing error.
+     */
+    private RuntimeException toDuplicateUserException(DataIntegrityViolationException e) {
+        String constraint = e.getCause() instanceof ConstraintViolationException violation
+                ? violation.getConstraintName()
+                : null;
+        if (constraint == null) {
+            constraint = String.valueOf(e.getMostSpecificCause().getMessage());
+        }
+
+        if (constraint.contains("phone_number")) {
+            return new BadRequestException("Phone number already registered");
+        }
+        if (constraint.contains("email")) {
+            return new BadRequestException("Email already registered");
+        }
+        log.error("Unexpected constraint violation during registration: {}", constraint);
+        return e;
+    }
 }
@@ -0,0 +1,336 @@
+package com.coffeeshop.service;
+
+import com.coffeeshop.exception.BadRequestException;
+import com.coffeeshop.exception.TooManyRequestsException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs a request at most once per (user, Idempotency-Key) and replays its stored
+ * result on retries. Concurrent retries on this instance wait for the first
+ * request; the {@code idempotency_keys} table covers other instances and restarts.
+ * While a request runs, its lease in the table is renewed, so a slow request is
+ * not taken over by a retry on another instance. The result is stored in the
+ * same transaction as the action's own writes.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private static final String STATUS_IN_PROGRESS = "IN_PROGRESS";
+    private static final String STATUS_COMPLETED = "COMPLETED";
+
+    // Claims a new key, an expired one, or one whose owner stopped renewing its lease (crashed)
+    private static final String CLAIM_SQL =
+            "INSERT INTO idempotency_keys (user_id, idempotency_key, request_hash, status, locked_until, expires_at) " +
+            "VALUES (?, ?, ?, 'IN_PROGRESS', ?, ?) " +
+            "ON CONFLICT (user_id, idempotency_key) DO UPDATE SET " +
+            "request_hash = EXCLUDED.request_hash, status = 'IN_PROGRESS', response_body = NULL, " +
+            "locked_until = EXCLUDED.locked_until, expires_at = EXCLUDED.expires_at, created_at = CURRENT_TIMESTAMP " +
+            "WHERE idempotency_keys.expires_at < CURRENT_TIMESTAMP " +
+            "OR (idempotency_keys.status = 'IN_PROGRESS' AND idempotency_keys.locked_until < CURRENT_TIMESTAMP)";
+
+    private static final String RENEW_SQL =
+            "UPDATE idempotency_keys SET locked_until = ? " +
+            "WHERE user_id = ? AND idempotency_key = ? AND status = 'IN_PROGRESS'";
+
+    private static final String COMPLETE_SQL =
+            "UPDATE idempotency_keys SET status = ?, response_body = ? " +
+            "WHERE user_id = ? AND idempotency_key = ? AND status = 'IN_PROGRESS'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Scope, Entry> entries = new ConcurrentHashMap<>();
+
+    @Value("${idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    @Value("${idempotency.lock-timeout-seconds:30}")
+    private long lockTimeoutSeconds;
+
+    @Value("${idempotency.wait-timeout-ms:10000}")
+    private long waitTimeoutMillis;
+
+    @Value("${idempotency.cache.max-size:10000}")
+    private int maxCachedResults;
+
+    public IdempotencyService(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Run the action for a new key, or return the result stored for a previous
+     * request with the same key. Reusing a key with a different request is rejected.
+     */
+    public <T> T execute(Long userId, String key, Object request, Class<T> resultType, Supplier<T> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key must be 1-" + MAX_KEY_LENGTH + " characters");
+        }
+
+        Scope scope = new Scope(userId, key);
+        String requestHash = hash(request);
+
+        while (true) {
+            Entry entry = new Entry(requestHash, new CompletableFuture<>(), System.currentTimeMillis());
+            Entry existing = entries.putIfAbsent(scope, entry);
+
+            if (existing == null) {
+                return runAsOwner(scope, entry, resultType, action);
+            }
+
+            if (existing.isExpired(System.currentTimeMillis(), ttlHours)) {
+                entries.remove(scope, existing);
+                continue;
+            }
+            verifySameRequest(existing.requestHash(), requestHash);
+
+            String body = await(existing);
+            if (body != null) {
+                log.info("Replaying idempotent result for key {}", key);
+                return deserialize(body, resultType);
+            }
+            // The first request failed and released the key: try again ourselves
+        }
+    }
+
+    /**
+     * Extend the lease of every request still running on this instance.
+     * Runs well within {@code idempotency.lock-timeout-seconds}, so only a
+     * crashed owner lets its lease lapse.
+     */
+    @Scheduled(fixedDelayString = "${idempotency.lease-renewal-interval-ms:10000}")
+    public void renewLeases() {
+        Timestamp lockedUntil = Timestamp.valueOf(LocalDateTime.now().plusSeconds(lockTimeoutSeconds));
+        List<Object[]> running = entries.entrySet().stream()
+                .filter(e -> !e.getValue().result().isDone())
+                .map(e -> new Object[]{lockedUntil, e.getKey().userId(), e.getKey().key()})
+                .toList();
+        if (running.isEmpty()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(RENEW_SQL, running);
+        } catch (RuntimeException e) {
+            log.error("Failed to renew {} idempotency leases: {}", running.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Drop expired keys from the table and the in-memory layer.
+     */
+    @Scheduled(fixedDelayString = "${idempotency.cleanup-interval-ms:600000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        entries.entrySet().removeIf(e -> e.getValue().isCompleted() && e.getValue().isExpired(now, ttlHours));
+
+        int deleted = jdbcTemplate.update("DELETE FROM idempotency_keys WHERE expires_at < CURRENT_TIMESTAMP");
+        if (deleted > 0) {
+            log.debug("Purged {} expired idempotency keys", deleted);
+        }
+    }
+
+    private <T> T runAsOwner(Scope scope, Entry entry, Class<T> resultType, Supplier<T> action) {
+        String stored;
+        try {
+            stored = claim(scope, entry.requestHash());
+        } catch (RuntimeException e) {
+            abandon(scope, entry);
+            throw e;
+        }
+
+        if (stored != null) {
+            entry.result().complete(stored);
+            keepOrEvict(scope, entry);
+            return deserialize(stored, resultType);
+        }
+
+        // The action joins this transaction, so the result row commits with
+        // whatever the action wrote, or neither does
+        Completed<T> completed;
+        try {
+            completed = transactionTemplate.execute(status -> {
+                T result = action.get();
+                String body = serialize(result);
+                int updated = jdbcTemplate.update(COMPLETE_SQL, STATUS_COMPLETED, body, scope.userId(), scope.key());
+                if (updated == 0) {
+                    // Our lease lapsed and the key was purged or claimed elsewhere
+                    status.setRollbackOnly();
+                    return null;
+                }
+                return new Completed<>(result, body);
+            });
+        } catch (RuntimeException e) {
+            release(scope, entry);
+            throw e;
+        }
+
+        if (completed == null) {
+            // Rolled back; the key is not ours to release
+            log.warn("Lost the idempotency lease for key {} before storing the result", scope.key());
+            abandon(scope, entry);
+            throw new TooManyRequestsException("A request with this Idempotency-Key is still being processed");
+        }
+
+        entry.result().complete(completed.body());
+        keepOrEvict(scope, entry);
+        return completed.result();
+    }
+
+    /**
+     * Claim the key in the database. Returns the stored response when another
+     * request already completed it, or null when this request now owns it.
+     */
+    private String claim(Scope scope, String requestHash) {
+        LocalDateTime now = LocalDateTime.now();
+        int claimed = jdbcTemplate.update(CLAIM_SQL,
+                scope.userId(), scope.key(), requestHash,
+                Timestamp.valueOf(now.plusSeconds(lockTimeoutSeconds)),
+                Timestamp.valueOf(now.plusHours(ttlHours)));
+        if (claimed == 1) {
+            return null;
+        }
+
+        List<StoredKey> rows = jdbcTemplate.query(
+                "SELECT request_hash, status, response_body FROM idempotency_keys " +
+                "WHERE user_id = ? AND idempotency_key = ?",
+                (rs, rowNum) -> new StoredKey(rs.getString(1), rs.getString(2), rs.getString(3)),
+                scope.userId(), scope.key());
+        if (rows.isEmpty()) {
+            // Purged between the two statements
+            return claim(scope, requestHash);
+        }
+
+        StoredKey row = rows.get(0);
+        verifySameRequest(row.requestHash(), requestHash);
+        if (STATUS_COMPLETED.equals(row.status())) {
+            return row.responseBody();
+        }
+        // In progress on another instance
+        throw new TooManyRequestsException("A request with this Idempotency-Key is still being processed");
+    }
+
+    /**
+     * Delete our claim after the action failed, so the key can be retried.
+     */
+    private void release(Scope scope, Entry entry) {
+        try {
+            jdbcTemplate.update(
+                    "DELETE FROM idempotency_keys WHERE user_id = ? AND idempotency_key = ? AND status = ?",
+                    scope.userId(), scope.key(), STATUS_IN_PROGRESS);
+        } finally {
+            abandon(scope, entry);
+        }
+    }
+
+    private void abandon(Scope scope, Entry entry) {
+        entries.remove(scope, entry);
+        // Waiters retry with the key released
+        entry.result().complete(null);
+    }
+
+    private String await(Entry entry) {
+        try {
+            return entry.result().get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new TooManyRequestsException("A request with this Idempotency-Key is still being processed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for idempotent request", e);
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Keep completed results in memory for fast replays, up to the configured size.
+     */
+    private void keepOrEvict(Scope scope, Entry entry) {
+        if (entries.size() <= maxCachedResults) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        entries.entrySet().removeIf(e -> e.getValue().isCompleted() && e.getValue().isExpired(now, ttlHours));
+        if (entries.size() > maxCachedResults) {
+            entries.remove(scope, entry);
+        }
+    }
+
+    private void verifySameRequest(String storedHash, String requestHash) {
+        if (!storedHash.equals(requestHash)) {
+            throw new BadRequestException("Idempotency-Key was already used for a different request");
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Failed to fingerprint request", e);
+        }
+    }
+
+    private String serialize(Object result) {
+        try {
+            return objectMapper.writeValueAsString(result);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to store idempotent result", e);
+        }
+    }
+
+    private <T> T deserialize(String body, Class<T> resultType) {
+        try {
+            return objectMapper.readValue(body, resultType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to read stored idempotent result", e);
+        }
+    }
+
+    private record Scope(Long userId, String key) {
+    }
+
+    private record Entry(String requestHash, CompletableFuture<String> result, long createdAt) {
+
+        boolean isCompleted() {
+            return result.isDone() && result.getNow(null) != null;
+        }
+
+        boolean isExpired(long now, long ttlHours) {
+            return now - createdAt > TimeUnit.HOURS.toMillis(ttlHours);
+        }
+    }
+
+    private record StoredKey(String requestHash, String status, String responseBody) {
+    }
+
+    private record Completed<T>(T result, String body) {
+    }
+}
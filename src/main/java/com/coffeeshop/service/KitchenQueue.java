@@ -0,0 +1,242 @@
+package com.coffeeshop.service;
+
+import com.coffeeshop.dto.KitchenDTO;
+import com.coffeeshop.entity.Order;
+import com.coffeeshop.entity.OrderItem;
+import com.coffeeshop.entity.Product;
+import com.coffeeshop.enums.OrderStatus;
+import com.coffeeshop.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory queue of CONFIRMED and PREPARING orders, in the order they were confirmed.
+ * Prep work (sum of item prep times) is kept in a Fenwick tree over queue slots, so
+ * enqueue, dequeue and the backlog ahead of any order are O(log n).
+ * <p>
+ * ETA model: the work ahead of an order is shared by all baristas, then one barista
+ * prepares the order itself. The queue is per instance and rebuilt from the database
+ * on startup.
+ */
+@Component
+@Slf4j
+public class KitchenQueue {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final OrderRepository orderRepository;
+
+    @Value("${orders.kitchen.baristas:2}")
+    private int baristas;
+
+    @Value("${orders.kitchen.default-prep-minutes:3}")
+    private int defaultPrepMinutes;
+
+    // Fenwick tree over slots (1-based), plus the work and entry held by each slot
+    private long[] tree = new long[INITIAL_CAPACITY + 1];
+    private long[] work = new long[INITIAL_CAPACITY + 1];
+    private Entry[] entries = new Entry[INITIAL_CAPACITY + 1];
+    private int nextSlot = 1;
+    private final Map<Long, Integer> slotsByOrderId = new HashMap<>();
+
+    public KitchenQueue(OrderRepository orderRepository) {
+        this.orderRepository = orderRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        List<Order> open = orderRepository.findKitchenOrders(List.of(OrderStatus.CONFIRMED, OrderStatus.PREPARING));
+        synchronized (this) {
+            for (Order order : open) {
+                enqueue(order.getId(), order.getOrderNumber(), order.getStatus(),
+                        order.getOrderItems().size(), prepSeconds(order));
+            }
+        }
+        log.info("Kitchen queue rebuilt with {} orders", open.size());
+    }
+
+    /**
+     * Prep time of an order in seconds, from item quantities and product prep times.
+     */
+    public long prepSeconds(Order order) {
+        long seconds = 0;
+        for (OrderItem item : order.getOrderItems()) {
+            seconds += prepSeconds(item.getProduct(), item.getQuantity());
+        }
+        return seconds;
+    }
+
+    private long prepSeconds(Product product, int quantity) {
+        Integer minutes = product.getPrepTimeMinutes();
+        return 60L * (minutes != null ? minutes : defaultPrepMinutes) * quantity;
+    }
+
+    /**
+     * Estimated ready time for a new order with the given prep time, queued behind everything open now.
+     */
+    public synchronized LocalDateTime estimateReadyTime(long prepSeconds) {
+        return LocalDateTime.now().plusSeconds(prefixSum(nextSlot - 1) / baristas + prepSeconds);
+    }
+
+    /**
+     * Apply an order's new status once the current transaction commits.
+     */
+    public void onStatusChangeAfterCommit(Order order) {
+        Long orderId = order.getId();
+        String orderNumber = order.getOrderNumber();
+        OrderStatus status = order.getStatus();
+        int itemCount = order.getOrderItems().size();
+        long prepSeconds = status == OrderStatus.CONFIRMED ? prepSeconds(order) : 0;
+
+        Runnable apply = () -> onStatusChange(orderId, orderNumber, status, itemCount, prepSeconds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    synchronized void onStatusChange(Long orderId, String orderNumber, OrderStatus status,
+                                     int itemCount, long prepSeconds) {
+        switch (status) {
+            case CONFIRMED -> enqueue(orderId, orderNumber, status, itemCount, prepSeconds);
+            case PREPARING -> {
+                Integer slot = slotsByOrderId.get(orderId);
+                if (slot != null) {
+                    entries[slot] = entries[slot].withStatus(status);
+                }
+            }
+            default -> dequeue(orderId);
+        }
+    }
+
+    /**
+     * Current queue with ETAs, oldest first.
+     */
+    public synchronized KitchenDTO.QueueResponse view() {
+        LocalDateTime now = LocalDateTime.now();
+        List<KitchenDTO.QueueEntry> orders = new ArrayList<>(slotsByOrderId.size());
+
+        long workAhead = 0;
+        for (int slot = 1; slot < nextSlot; slot++) {
+            Entry entry = entries[slot];
+            if (entry == null) {
+                continue;
+            }
+            orders.add(KitchenDTO.QueueEntry.builder()
+                    .orderId(entry.orderId())
+                    .orderNumber(entry.orderNumber())
+                    .status(entry.status())
+                    .itemCount(entry.itemCount())
+                    .prepMinutes(work[slot] / 60)
+                    .estimatedReadyTime(now.plusSeconds(workAhead / baristas + work[slot]))
+                    .build());
+            workAhead += work[slot];
+        }
+
+        return KitchenDTO.QueueResponse.builder()
+                .baristas(baristas)
+                .orderCount(orders.size())
+                .backlogMinutes(workAhead / baristas / 60)
+                .orders(orders)
+                .build();
+    }
+
+    private void enqueue(Long orderId, String orderNumber, OrderStatus status, int itemCount, long prepSeconds) {
+        if (slotsByOrderId.containsKey(orderId)) {
+            return;
+        }
+        if (nextSlot == tree.length) {
+            compact();
+        }
+        int slot = nextSlot++;
+        work[slot] = prepSeconds;
+        entries[slot] = new Entry(orderId, orderNumber, status, itemCount);
+        slotsByOrderId.put(orderId, slot);
+        add(slot, prepSeconds);
+    }
+
+    private void dequeue(Long orderId) {
+        Integer slot = slotsByOrderId.remove(orderId);
+        if (slot == null) {
+            return;
+        }
+        add(slot, -work[slot]);
+        work[slot] = 0;
+        entries[slot] = null;
+    }
+
+    /**
+     * Drop freed slots and size the tree to the live orders (amortized O(1) per enqueue).
+     */
+    private void compact() {
+        int live = slotsByOrderId.size();
+        int capacity = Math.max(INITIAL_CAPACITY, Integer.highestOneBit(Math.max(live, 1)) * 4);
+
+        long[] newWork = new long[capacity + 1];
+        Entry[] newEntries = new Entry[capacity + 1];
+        int slot = 1;
+        for (int old = 1; old < nextSlot; old++) {
+            if (entries[old] != null) {
+                newWork[slot] = work[old];
+                newEntries[slot] = entries[old];
+                slotsByOrderId.put(entries[old].orderId(), slot);
+                slot++;
+            }
+        }
+
+        // O(n) Fenwick construction
+        long[] newTree = new long[capacity + 1];
+        for (int i = 1; i <= capacity; i++) {
+            newTree[i] += newWork[i];
+            int parent = i + (i & -i);
+            if (parent <= capacity) {
+                newTree[parent] += newTree[i];
+            }
+        }
+
+        tree = newTree;
+        work = newWork;
+        entries = newEntries;
+        nextSlot = slot;
+    }
+
+    private void add(int slot, long delta) {
+        for (int i = slot; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    private long prefixSum(int slot) {
+        long sum = 0;
+        for (int i = slot; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    private record Entry(Long orderId, String orderNumber, OrderStatus status, int itemCount) {
+
+        Entry withStatus(OrderStatus newStatus) {
+            return new Entry(orderId, orderNumber, newStatus, itemCount);
+        }
+    }
+}
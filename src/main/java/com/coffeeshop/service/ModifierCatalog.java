@@ -0,0 +1,219 @@
+package com.coffeeshop.service;
+
+import com.coffeeshop.dto.ProductDTO;
+import com.coffeeshop.entity.Product;
+import com.coffeeshop.exception.BadRequestException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory drink modifier catalog (V10 migration). The catalog is an immutable
+ * snapshot of arrays indexed by modifier id, swapped atomically on reload, so
+ * validating and pricing a modifier is an array lookup.
+ */
+@Component
+@Slf4j
+public class ModifierCatalog {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    public ModifierCatalog(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${modifiers.refresh-interval-ms:60000}",
+               initialDelayString = "${modifiers.refresh-interval-ms:60000}")
+    public void reload() {
+        List<Group> groups = jdbcTemplate.query(
+                "SELECT id, code, name, max_selections FROM modifier_groups ORDER BY sort_order, id",
+                (rs, rowNum) -> new Group(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getInt(4)));
+        List<Modifier> modifiers = jdbcTemplate.query(
+                "SELECT id, group_id, code, name, price_delta_cents, available FROM modifiers " +
+                "ORDER BY sort_order, id",
+                (rs, rowNum) -> new Modifier(rs.getInt(1), rs.getInt(2), rs.getString(3), rs.getString(4),
+                        rs.getInt(5), rs.getBoolean(6)));
+        Map<Long, Long> productGroups = new HashMap<>();
+        jdbcTemplate.query("SELECT product_id, group_id FROM product_modifier_groups", rs -> {
+            productGroups.merge(rs.getLong(1), 1L << rs.getInt(2), (a, b) -> a | b);
+        });
+
+        snapshot = Snapshot.build(groups, modifiers, productGroups);
+        log.debug("Modifier catalog loaded: {} groups, {} modifiers", groups.size(), modifiers.size());
+    }
+
+    /**
+     * Validate the modifiers chosen for a product and return them as a sorted id array,
+     * or null when none were chosen.
+     */
+    public short[] validate(Product product, List<Integer> modifierIds) {
+        if (modifierIds == null || modifierIds.isEmpty()) {
+            return null;
+        }
+        Snapshot catalog = snapshot;
+        long productMask = catalog.productGroups.getOrDefault(product.getId(), 0L);
+        int[] perGroup = new int[Snapshot.MAX_GROUPS];
+
+        short[] ids = new short[modifierIds.size()];
+        for (int i = 0; i < ids.length; i++) {
+            Integer id = modifierIds.get(i);
+            if (id == null || !catalog.exists(id)) {
+                throw new BadRequestException("Unknown modifier ID: " + id);
+            }
+            if (!catalog.available[id]) {
+                throw new BadRequestException("Modifier is not available: " + catalog.names[id]);
+            }
+            int group = catalog.groupOf[id];
+            if ((productMask & (1L << group)) == 0) {
+                throw new BadRequestException(
+                        "Modifier " + catalog.names[id] + " is not offered for " + product.getName());
+            }
+            if (++perGroup[group] > catalog.groupMaxSelections[group]) {
+                throw new BadRequestException("Too many " + catalog.groupNames[group] + " selections for "
+                        + product.getName() + " (max " + catalog.groupMaxSelections[group] + ")");
+            }
+            ids[i] = id.shortValue();
+        }
+
+        Arrays.sort(ids);
+        for (int i = 1; i < ids.length; i++) {
+            if (ids[i] == ids[i - 1]) {
+                throw new BadRequestException("Duplicate modifier: " + catalog.names[ids[i]]);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Sum of the price deltas of the given modifiers, per unit.
+     */
+    public long priceDeltaCents(short[] modifierIds) {
+        if (modifierIds == null) {
+            return 0;
+        }
+        Snapshot catalog = snapshot;
+        long delta = 0;
+        for (short id : modifierIds) {
+            if (catalog.exists(id)) {
+                delta += catalog.priceDeltaCents[id];
+            }
+        }
+        return delta;
+    }
+
+    /**
+     * Display names of the given modifiers, for order responses.
+     */
+    public List<String> names(short[] modifierIds) {
+        if (modifierIds == null) {
+            return List.of();
+        }
+        Snapshot catalog = snapshot;
+        List<String> names = new ArrayList<>(modifierIds.length);
+        for (short id : modifierIds) {
+            names.add(catalog.exists(id) ? catalog.names[id] : "Modifier " + id);
+        }
+        return names;
+    }
+
+    /**
+     * Modifier groups offered for a product, with their available options.
+     */
+    public List<ProductDTO.ModifierGroupResponse> forProduct(Long productId) {
+        Snapshot catalog = snapshot;
+        long productMask = catalog.productGroups.getOrDefault(productId, 0L);
+
+        List<ProductDTO.ModifierGroupResponse> groups = new ArrayList<>();
+        for (Group group : catalog.groups) {
+            if ((productMask & (1L << group.id())) == 0) {
+                continue;
+            }
+            List<ProductDTO.ModifierOption> options = catalog.modifiers.stream()
+                    .filter(modifier -> modifier.groupId() == group.id() && modifier.available())
+                    .map(modifier -> ProductDTO.ModifierOption.builder()
+                            .id(modifier.id())
+                            .code(modifier.code())
+                            .name(modifier.name())
+                            .priceDelta(PricingEngine.toAmount(modifier.priceDeltaCents()))
+                            .build())
+                    .toList();
+            groups.add(ProductDTO.ModifierGroupResponse.builder()
+                    .code(group.code())
+                    .name(group.name())
+                    .maxSelections(group.maxSelections())
+                    .options(options)
+                    .build());
+        }
+        return groups;
+    }
+
+    private record Group(int id, String code, String name, int maxSelections) {
+    }
+
+    private record Modifier(int id, int groupId, String code, String name, int priceDeltaCents, boolean available) {
+    }
+
+    /**
+     * Immutable catalog arrays, indexed by modifier id and group id.
+     */
+    private static final class Snapshot {
+
+        // Group ids index a bit in the per-product mask
+        static final int MAX_GROUPS = 64;
+
+        static final Snapshot EMPTY = build(List.of(), List.of(), Map.of());
+
+        final List<Group> groups;
+        final List<Modifier> modifiers;
+        final int[] priceDeltaCents;
+        final int[] groupOf;
+        final boolean[] available;
+        final String[] names;
+        final int[] groupMaxSelections = new int[MAX_GROUPS];
+        final String[] groupNames = new String[MAX_GROUPS];
+        final Map<Long, Long> productGroups;
+
+        private Snapshot(List<Group> groups, List<Modifier> modifiers, int size, Map<Long, Long> productGroups) {
+            this.groups = groups;
+            this.modifiers = modifiers;
+            this.priceDeltaCents = new int[size];
+            this.groupOf = new int[size];
+            this.available = new boolean[size];
+            this.names = new String[size];
+            this.productGroups = productGroups;
+        }
+
+        static Snapshot build(List<Group> groups, List<Modifier> modifiers, Map<Long, Long> productGroups) {
+            int size = modifiers.stream().mapToInt(Modifier::id).max().orElse(-1) + 1;
+            Snapshot snapshot = new Snapshot(List.copyOf(groups), List.copyOf(modifiers), size,
+                    Map.copyOf(productGroups));
+            for (Group group : groups) {
+                snapshot.groupMaxSelections[group.id()] = group.maxSelections();
+                snapshot.groupNames[group.id()] = group.name();
+            }
+            for (Modifier modifier : modifiers) {
+                snapshot.priceDeltaCents[modifier.id()] = modifier.priceDeltaCents();
+                snapshot.groupOf[modifier.id()] = modifier.groupId();
+                snapshot.available[modifier.id()] = modifier.available();
+                snapshot.names[modifier.id()] = modifier.name();
+            }
+            return snapshot;
+        }
+
+        boolean exists(int id) {
+            return id >= 0 && id < names.length && names[id] != null;
+        }
+    }
+}
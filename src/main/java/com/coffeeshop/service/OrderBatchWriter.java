@@ -0,0 +1,92 @@
+package com.coffeeshop.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes queued orders with JDBC batches, one transaction (and one commit) per batch.
+ * Rows that already exist are skipped, so replaying a journal entry is harmless.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderBatchWriter {
+
+    private static final String INSERT_ORDER_SQL =
+            "INSERT INTO orders (id, user_id, order_number, order_date, status, subtotal, tax, " +
+            "delivery_fee, total_amount, payment_method, is_paid, delivery_address_id, " +
+            "special_instructions, estimated_delivery_time, created_at, updated_at, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, FALSE, ?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0) " +
+            "ON CONFLICT DO NOTHING";
+
+    private static final String INSERT_ITEM_SQL =
+            "INSERT INTO order_items (id, order_id, product_id, quantity, price, size, " +
+            "modifier_ids, customizations, notes, created_at, updated_at, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, CAST(? AS smallint[]), ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0) " +
+            "ON CONFLICT DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional
+    public void write(List<QueuedOrder> orders) {
+        List<Object[]> orderRows = new ArrayList<>(orders.size());
+        List<Object[]> itemRows = new ArrayList<>();
+
+        for (QueuedOrder order : orders) {
+            orderRows.add(new Object[]{
+                    order.id(),
+                    order.userId(),
+                    order.orderNumber(),
+                    Timestamp.valueOf(order.orderDate()),
+                    order.status().name(),
+                    order.subtotal(),
+                    order.tax(),
+                    order.deliveryFee(),
+                    order.totalAmount(),
+                    order.paymentMethod() != null ? order.paymentMethod().name() : null,
+                    order.deliveryAddressId(),
+                    order.specialInstructions(),
+                    order.estimatedDeliveryTime() != null ? Timestamp.valueOf(order.estimatedDeliveryTime()) : null
+            });
+
+            for (QueuedOrder.Item item : order.items()) {
+                itemRows.add(new Object[]{
+                        item.id(),
+                        order.id(),
+                        item.productId(),
+                        item.quantity(),
+                        item.price(),
+                        item.size() != null ? item.size().name() : null,
+                        arrayLiteral(item.modifierIds()),
+                        item.customizations(),
+                        item.notes()
+                });
+            }
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_ORDER_SQL, orderRows);
+        jdbcTemplate.batchUpdate(INSERT_ITEM_SQL, itemRows);
+    }
+
+    /**
+     * PostgreSQL array literal, e.g. "{3,10}".
+     */
+    private static String arrayLiteral(short[] values) {
+        if (values == null) {
+            return null;
+        }
+        StringBuilder literal = new StringBuilder("{");
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                literal.append(',');
+            }
+            literal.append(values[i]);
+        }
+        return literal.append('}').toString();
+    }
+}
@@ -0,0 +1,321 @@
+package com.coffeeshop.service;
+
+import com.coffeeshop.dto.OrderDTO;
+import com.coffeeshop.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process fan-out of order status changes to their owners over Server-Sent Events.
+ * Publishing never blocks the caller: each stream has its own queue, drained on a
+ * small dedicated executor.
+ * Recent events are kept per user so a reconnecting client can resume from
+ * {@code Last-Event-ID}; if the gap is too old it is told to resync instead.
+ * <p>
+ * Events only reach clients connected to the instance that made the change;
+ * clients of other instances catch up on their next resync.
+ */
+@Component
+@Slf4j
+public class OrderEventStream {
+
+    static final String STATUS_EVENT = "order-status";
+    static final String RESYNC_EVENT = "resync";
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final Map<Long, ReplayBuffer> replayBuffers = new ConcurrentHashMap<>();
+    private final AtomicLong eventIds = new AtomicLong(System.currentTimeMillis() * 1000);
+    private final ThreadPoolExecutor sender;
+    private final Counter dropped;
+
+    @Value("${orders.events.timeout-ms:1800000}")
+    private long emitterTimeoutMillis;
+
+    @Value("${orders.events.max-connections-per-user:5}")
+    private int maxConnectionsPerUser;
+
+    @Value("${orders.events.max-pending-per-stream:100}")
+    private int maxPendingPerSubscriber;
+
+    @Value("${orders.events.replay-size:50}")
+    private int replaySize;
+
+    @Value("${orders.events.replay-retention-seconds:300}")
+    private long replayRetentionSeconds;
+
+    public OrderEventStream(MeterRegistry meterRegistry,
+                            @Value("${orders.events.sender-threads:2}") int senderThreads,
+                            @Value("${orders.events.sender-queue-capacity:10000}") int senderQueueCapacity) {
+        this.sender = new ThreadPoolExecutor(
+                senderThreads, senderThreads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(senderQueueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "order-events");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.dropped = Counter.builder("orders.events.dropped")
+                .description("Order events not delivered because the send queue was full")
+                .register(meterRegistry);
+        Gauge.builder("orders.events.subscribers", subscribers,
+                        s -> s.values().stream().mapToInt(Set::size).sum())
+                .description("Open order event streams")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Open a stream for a user, replaying events after {@code lastEventId} if given.
+     */
+    public SseEmitter subscribe(Long userId, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        Subscriber subscriber = new Subscriber(userId, emitter);
+
+        // Cap check and add in one step, atomic with unsubscribe removing the set
+        subscribers.compute(userId, (id, userSubscribers) -> {
+            Set<Subscriber> current = userSubscribers != null ? userSubscribers : new CopyOnWriteArraySet<>();
+            if (current.size() >= maxConnectionsPerUser) {
+                throw new TooManyRequestsException("Too many open order streams");
+            }
+            current.add(subscriber);
+            return current;
+        });
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+
+        if (lastEventId != null) {
+            replay(subscriber, lastEventId);
+        }
+        return emitter;
+    }
+
+    /**
+     * Publish once the current transaction commits, so clients never see a
+     * change that was rolled back.
+     */
+    public void publishAfterCommit(Long userId, OrderDTO.OrderStatusEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(userId, event);
+                }
+            });
+        } else {
+            publish(userId, event);
+        }
+    }
+
+    public void publish(Long userId, OrderDTO.OrderStatusEvent event) {
+        long eventId = eventIds.incrementAndGet();
+        replayBuffers.computeIfAbsent(userId, id -> new ReplayBuffer(eventId)).add(eventId, event, replaySize);
+
+        Set<Subscriber> userSubscribers = subscribers.get(userId);
+        if (userSubscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : userSubscribers) {
+            subscriber.enqueue(statusEvent(eventId, event));
+        }
+    }
+
+    /**
+     * Keep idle connections open through proxies and drop replay buffers nobody can resume from.
+     */
+    @Scheduled(fixedRateString = "${orders.events.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        subscribers.values().forEach(userSubscribers -> userSubscribers
+                .forEach(subscriber -> subscriber.enqueue(SseEmitter.event().comment("heartbeat"))));
+
+        long cutoff = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(replayRetentionSeconds);
+        replayBuffers.entrySet().removeIf(entry -> entry.getValue().lastUpdated() < cutoff);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.values().forEach(userSubscribers -> userSubscribers
+                .forEach(subscriber -> subscriber.emitter().complete()));
+        sender.shutdown();
+    }
+
+    private void replay(Subscriber subscriber, long lastEventId) {
+        ReplayBuffer buffer = replayBuffers.get(subscriber.userId());
+        List<BufferedEvent> missed = buffer != null ? buffer.after(lastEventId) : null;
+
+        if (missed == null) {
+            // Gap is older than what we kept: the client must refetch its active orders
+            subscriber.enqueue(SseEmitter.event().name(RESYNC_EVENT).data(""));
+            return;
+        }
+        for (BufferedEvent missedEvent : missed) {
+            subscriber.enqueue(statusEvent(missedEvent.id(), missedEvent.event()));
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder statusEvent(long eventId, OrderDTO.OrderStatusEvent event) {
+        return SseEmitter.event()
+                .id(String.valueOf(eventId))
+                .name(STATUS_EVENT)
+                .data(event, MediaType.APPLICATION_JSON);
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.userId(), (id, userSubscribers) -> {
+            userSubscribers.remove(subscriber);
+            return userSubscribers.isEmpty() ? null : userSubscribers;
+        });
+    }
+
+    /**
+     * One open stream. Events are queued and sent by at most one sender thread at a
+     * time, so they arrive in order; a client that falls too far behind is disconnected
+     * and resumes with Last-Event-ID.
+     */
+    private final class Subscriber {
+
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        Long userId() {
+            return userId;
+        }
+
+        SseEmitter emitter() {
+            return emitter;
+        }
+
+        void enqueue(SseEmitter.SseEventBuilder event) {
+            if (pendingCount.incrementAndGet() > maxPendingPerSubscriber) {
+                pendingCount.decrementAndGet();
+                dropped.increment();
+                unsubscribe(this);
+                emitter.complete();
+                return;
+            }
+            pending.add(event);
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (!draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                sender.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+                dropped.increment();
+                log.warn("Order event send queue full, disconnecting a stream of user {}", userId);
+                unsubscribe(this);
+                emitter.complete();
+            }
+        }
+
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while ((event = pending.poll()) != null) {
+                    pendingCount.decrementAndGet();
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away
+                unsubscribe(this);
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                draining.set(false);
+            }
+            if (!pending.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+    }
+
+    private record BufferedEvent(long id, OrderDTO.OrderStatusEvent event) {
+    }
+
+    /**
+     * Last few events of one user, oldest first.
+     */
+    private static final class ReplayBuffer {
+
+        private final Deque<BufferedEvent> events = new ArrayDeque<>();
+        private long evictedUpTo;
+        private volatile long lastUpdated = System.currentTimeMillis();
+
+        ReplayBuffer(long firstEventId) {
+            // An earlier buffer for this user may have been dropped: anything
+            // before the first event we hold is treated as evicted
+            this.evictedUpTo = firstEventId - 1;
+        }
+
+        synchronized void add(long id, OrderDTO.OrderStatusEvent event, int capacity) {
+            events.addLast(new BufferedEvent(id, event));
+            while (events.size() > capacity) {
+                evictedUpTo = events.removeFirst().id();
+            }
+            lastUpdated = System.currentTimeMillis();
+        }
+
+        /**
+         * Events after the given id, or null if some of them were already evicted.
+         */
+        synchronized List<BufferedEvent> after(long lastEventId) {
+            if (lastEventId < evictedUpTo) {
+                return null;
+            }
+            List<BufferedEvent> result = new ArrayList<>();
+            for (BufferedEvent event : events) {
+                if (event.id() > lastEventId) {
+                    result.add(event);
+                }
+            }
+            return result;
+        }
+
+        long lastUpdated() {
+            return lastUpdated;
+        }
+    }
+}
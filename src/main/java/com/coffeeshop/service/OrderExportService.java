@@ -0,0 +1,191 @@
+package com.coffeeshop.service;
+
+import com.coffeeshop.dto.OrderDTO;
+import com.coffeeshop.entity.Order;
+import com.coffeeshop.entity.OrderItem;
+import com.coffeeshop.exception.BadRequestException;
+import com.coffeeshop.repository.OrderRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Streams orders to CSV or NDJSON in constant memory: rows come from a database
+ * cursor, items are batch-fetched per chunk and the persistence context is
+ * cleared after every chunk.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderExportService {
+
+    private static final String CSV_HEADER =
+            "id,order_number,order_date,user_id,status,payment_method,paid," +
+            "subtotal,tax,delivery_fee,total_amount,actual_delivery_time,item_count,item_quantity";
+
+    private final OrderRepository orderRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Value("${orders.export.chunk-size:500}")
+    private int chunkSize;
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Unsupported export format: " + value);
+            }
+        }
+    }
+
+    /**
+     * Write all orders dated in [from, to) to the writer. Returns the number of orders written.
+     */
+    @Transactional(readOnly = true)
+    public long export(LocalDateTime from, LocalDateTime to, Format format, Writer writer) {
+        if (!from.isBefore(to)) {
+            throw new BadRequestException("'from' must be before 'to'");
+        }
+        log.info("Exporting orders from {} to {} as {}", from, to, format);
+
+        long count = 0;
+        try (Stream<Order> orders = orderRepository.streamOrdersBetween(from, to)) {
+            if (format == Format.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+
+            // Buffer a chunk before touching items, so batch fetching loads the
+            // items of many orders per query instead of one query per order
+            List<Order> chunk = new ArrayList<>(chunkSize);
+            Iterator<Order> iterator = orders.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == chunkSize || !iterator.hasNext()) {
+                    for (Order order : chunk) {
+                        write(toRow(order), format, writer);
+                    }
+                    count += chunk.size();
+                    chunk.clear();
+
+                    // Keep memory flat: drop managed orders and push what we have to the client
+                    entityManager.clear();
+                    writer.flush();
+                }
+            }
+            writer.flush();
+        } catch (IOException e) {
+            // Usually the client disconnected
+            throw new UncheckedIOException("Order export aborted after " + count + " orders", e);
+        }
+
+        log.info("Exported {} orders", count);
+        return count;
+    }
+
+    private void write(OrderDTO.OrderExportRow row, Format format, Writer writer) throws IOException {
+        if (format == Format.CSV) {
+            writeCsv(row, writer);
+        } else {
+            writer.write(objectMapper.writeValueAsString(row));
+            writer.write('\n');
+        }
+    }
+
+    private OrderDTO.OrderExportRow toRow(Order order) {
+        List<OrderDTO.OrderExportItem> items = order.getOrderItems().stream()
+                .map(this::toItem)
+                .toList();
+
+        return OrderDTO.OrderExportRow.builder()
+                .id(order.getId())
+                .orderNumber(order.getOrderNumber())
+                .orderDate(order.getOrderDate())
+                .userId(order.getUser().getId())
+                .status(order.getStatus())
+                .paymentMethod(order.getPaymentMethod())
+                .paid(order.getPaid())
+                .subtotal(order.getSubtotal())
+                .tax(order.getTax())
+                .deliveryFee(order.getDeliveryFee())
+                .totalAmount(order.getTotalAmount())
+                .actualDeliveryTime(order.getActualDeliveryTime())
+                .items(items)
+                .build();
+    }
+
+    private OrderDTO.OrderExportItem toItem(OrderItem item) {
+        return OrderDTO.OrderExportItem.builder()
+                .productId(item.getProduct().getId())
+                .quantity(item.getQuantity())
+                .price(item.getPrice())
+                .size(item.getSize())
+                .build();
+    }
+
+    private void writeCsv(OrderDTO.OrderExportRow row, Writer writer) throws IOException {
+        int quantity = row.getItems().stream().mapToInt(OrderDTO.OrderExportItem::getQuantity).sum();
+        writer.write(String.join(",",
+                csv(row.getId()),
+                csv(row.getOrderNumber()),
+                csv(row.getOrderDate()),
+                csv(row.getUserId()),
+                csv(row.getStatus()),
+                csv(row.getPaymentMethod()),
+                csv(row.getPaid()),
+                csv(row.getSubtotal()),
+                csv(row.getTax()),
+                csv(row.getDeliveryFee()),
+                csv(row.getTotalAmount()),
+                csv(row.getActualDeliveryTime()),
+                csv(row.getItems().size()),
+                csv(quantity)));
+        writer.write('\n');
+    }
+
+    private String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+}
@@ -0,0 +1,51 @@
+package com.coffeeshop.service;
+
+import com.coffeeshop.entity.IdSequences;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Allocates order and order item ids outside Hibernate, from the same pooled
+ * sequences and with the same block semantics, so pre-assigned ids never clash
+ * with ids Hibernate hands out.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderIdAllocator {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final IdBlock orderIds = new IdBlock(IdSequences.ORDER);
+    private final IdBlock itemIds = new IdBlock(IdSequences.ORDER_ITEM);
+
+    public long nextOrderId() {
+        return orderIds.next();
+    }
+
+    public long nextOrderItemId() {
+        return itemIds.next();
+    }
+
+    /**
+     * Block of ids (hi - allocationSize, hi] reserved by one sequence call.
+     */
+    private final class IdBlock {
+
+        private final String sql;
+        private long next = 1;
+        private long hi = 0;
+
+        private IdBlock(String sequence) {
+            this.sql = "SELECT nextval('" + sequence + "')";
+        }
+
+        synchronized long next() {
+            if (next > hi) {
+                hi = jdbcTemplate.queryForObject(sql, Long.class);
+                next = hi - IdSequences.ALLOCATION_SIZE + 1;
+            }
+            return next++;
+        }
+    }
+}
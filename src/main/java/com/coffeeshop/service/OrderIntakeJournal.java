@@ -0,0 +1,124 @@
+package com.coffeeshop.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Local write-ahead journal for asynchronously accepted orders.
+ * One file per order, written to a temp file and atomically renamed, so a crash
+ * never leaves a partial record. Files are removed once the order is committed
+ * and replayed on startup otherwise.
+ */
+@Component
+@Slf4j
+public class OrderIntakeJournal {
+
+    private static final String SUFFIX = ".json";
+
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final Path failedDirectory;
+    private final boolean fsync;
+
+    public OrderIntakeJournal(ObjectMapper objectMapper,
+                              @Value("${orders.async-intake.journal-dir:data/order-journal}") String directory,
+                              @Value("${orders.async-intake.journal-fsync:true}") boolean fsync) {
+        this.objectMapper = objectMapper;
+        this.directory = Paths.get(directory);
+        this.failedDirectory = this.directory.resolve("failed");
+        this.fsync = fsync;
+    }
+
+    /**
+     * Durably record an accepted order. Must complete before the order is acknowledged.
+     */
+    public void append(QueuedOrder order) {
+        try {
+            Files.createDirectories(directory);
+            Path target = fileFor(order.id());
+            Path temp = directory.resolve(order.id() + ".tmp");
+
+            byte[] bytes = objectMapper.writeValueAsBytes(order);
+            try (FileChannel channel = FileChannel.open(temp,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                channel.write(ByteBuffer.wrap(bytes));
+                if (fsync) {
+                    channel.force(true);
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to journal order " + order.id(), e);
+        }
+    }
+
+    public void remove(Long orderId) {
+        try {
+            Files.deleteIfExists(fileFor(orderId));
+        } catch (IOException e) {
+            // Harmless: replay skips orders that already exist
+            log.warn("Failed to remove journal entry for order {}: {}", orderId, e.getMessage());
+        }
+    }
+
+    /**
+     * Move an order that cannot be written aside for manual inspection.
+     */
+    public void markFailed(Long orderId) {
+        try {
+            Files.createDirectories(failedDirectory);
+            Path source = fileFor(orderId);
+            if (Files.exists(source)) {
+                Files.move(source, failedDirectory.resolve(source.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            log.error("Failed to move journal entry for order {} aside: {}", orderId, e.getMessage());
+        }
+    }
+
+    /**
+     * Read every unflushed order, oldest id first. Unreadable entries are moved aside.
+     */
+    public List<QueuedOrder> readAll() {
+        List<QueuedOrder> orders = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return orders;
+        }
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : files) {
+                try {
+                    orders.add(objectMapper.readValue(file.toFile(), QueuedOrder.class));
+                } catch (IOException e) {
+                    log.error("Unreadable journal entry {}: {}", file.getFileName(), e.getMessage());
+                    Files.createDirectories(failedDirectory);
+                    Files.move(file, failedDirectory.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read order journal", e);
+        }
+
+        orders.sort((a, b) -> Long.compare(a.id(), b.id()));
+        return orders;
+    }
+
+    private Path fileFor(Long orderId) {
+        return directory.resolve(orderId + SUFFIX);
+    }
+}
@@ -0,0 +1,293 @@
+package com.coffeeshop.service;
+
+import com.coffeeshop.dto.OrderDTO;
+import com.coffeeshop.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous order intake with group-commit write-behind.
+ * Orders are validated and journaled on the request thread, then written by a
+ * single background writer that commits many orders per transaction. Until
+ * written, orders are served from {@link PendingOrderRegistry}. Orders that
+ * keep failing with transient errors stay pending and are retried with backoff.
+ */
+@Service
+@Slf4j
+public class OrderIntakeService {
+
+    private static final int MAX_ATTEMPTS = 5;
+    private static final long MAX_RETRY_DELAY_MILLIS = 60_000L;
+
+    private final OrderService orderService;
+    private final OrderBatchWriter batchWriter;
+    private final OrderIntakeJournal journal;
+    private final PendingOrderRegistry pendingOrders;
+    private final Timer flushTimer;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long lingerMillis;
+    private final long retryDelayMillis;
+    private final BlockingQueue<QueuedOrder> queue;
+    private final DelayQueue<RetryOrder> retries = new DelayQueue<>();
+    private final Map<Long, Integer> retryAttempts = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public OrderIntakeService(OrderService orderService,
+                              OrderBatchWriter batchWriter,
+                              OrderIntakeJournal journal,
+                              PendingOrderRegistry pendingOrders,
+                              MeterRegistry meterRegistry,
+                              @Value("${orders.async-intake.enabled:false}") boolean enabled,
+                              @Value("${orders.async-intake.queue-capacity:10000}") int queueCapacity,
+                              @Value("${orders.async-intake.batch-size:200}") int batchSize,
+                              @Value("${orders.async-intake.linger-ms:5}") long lingerMillis,
+                              @Value("${orders.async-intake.retry-delay-ms:1000}") long retryDelayMillis) {
+        this.orderService = orderService;
+        this.batchWriter = batchWriter;
+        this.journal = journal;
+        this.pendingOrders = pendingOrders;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.lingerMillis = lingerMillis;
+        this.retryDelayMillis = retryDelayMillis;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        this.flushTimer = Timer.builder("orders.intake.flush")
+                .description("Time to write one group-committed batch")
+                .register(meterRegistry);
+        meterRegistry.gauge("orders.intake.queue", queue, BlockingQueue::size);
+        meterRegistry.gauge("orders.intake.pending", pendingOrders, PendingOrderRegistry::size);
+        meterRegistry.gauge("orders.intake.retrying", retries, DelayQueue::size);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Validate and accept an order; it is persisted shortly after this returns.
+     */
+    public OrderDTO.OrderResponse submit(Long userId, OrderDTO.CreateOrderRequest request) {
+        if (!running) {
+            throw new TooManyRequestsException("Order intake is not ready, please retry shortly");
+        }
+
+        QueuedOrder order = orderService.prepareForIntake(userId, request);
+
+        pendingOrders.add(order);
+        try {
+            journal.append(order);
+        } catch (RuntimeException e) {
+            pendingOrders.markFailed(order.id(), e);
+            throw e;
+        }
+
+        if (!queue.offer(order)) {
+            journal.remove(order.id());
+            pendingOrders.markFailed(order.id(), new IllegalStateException("Intake queue full"));
+            throw new TooManyRequestsException("Too many orders in progress, please retry shortly");
+        }
+
+        log.info("Order {} accepted for asynchronous intake", order.orderNumber());
+        return order.response();
+    }
+
+    /**
+     * Replay the journal before accepting new orders, then start the writer.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+
+        List<QueuedOrder> unflushed = journal.readAll();
+        if (!unflushed.isEmpty()) {
+            log.info("Replaying {} journaled orders", unflushed.size());
+            unflushed.forEach(pendingOrders::add);
+            for (int from = 0; from < unflushed.size(); from += batchSize) {
+                flush(unflushed.subList(from, Math.min(from + batchSize, unflushed.size())));
+            }
+        }
+
+        running = true;
+        writer = new Thread(this::drainLoop, "order-intake-writer");
+        writer.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.interrupt();
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        // Anything still queued or awaiting retry stays in the journal and is replayed on next start
+    }
+
+    private void drainLoop() {
+        List<QueuedOrder> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                drainRetries(batch);
+                if (batch.isEmpty()) {
+                    QueuedOrder first = queue.poll(pollTimeoutMillis(), TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                }
+                collect(batch);
+            } catch (InterruptedException e) {
+                if (running) {
+                    continue;
+                }
+                // Shutting down: write what is already queued without waiting for more
+                queue.drainTo(batch, batchSize - batch.size());
+            }
+
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Move orders whose retry delay has elapsed into the batch.
+     */
+    private void drainRetries(List<QueuedOrder> batch) {
+        List<RetryOrder> due = new ArrayList<>();
+        retries.drainTo(due, batchSize - batch.size());
+        due.forEach(retry -> batch.add(retry.order()));
+    }
+
+    /**
+     * Wake up in time for the next retry, or at least once a second.
+     */
+    private long pollTimeoutMillis() {
+        RetryOrder next = retries.peek();
+        if (next == null) {
+            return 1000L;
+        }
+        return Math.max(1L, Math.min(1000L, next.getDelay(TimeUnit.MILLISECONDS)));
+    }
+
+    /**
+     * Fill the batch with whatever arrives within the linger window.
+     */
+    private void collect(List<QueuedOrder> batch) throws InterruptedException {
+        queue.drainTo(batch, batchSize - batch.size());
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+        while (batch.size() < batchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            QueuedOrder next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+            queue.drainTo(batch, batchSize - batch.size());
+        }
+    }
+
+    private void flush(List<QueuedOrder> batch) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                flushTimer.record(() -> batchWriter.write(batch));
+                batch.forEach(this::persisted);
+                log.debug("Flushed {} orders", batch.size());
+                return;
+            } catch (TransientDataAccessException | RecoverableDataAccessException e) {
+                if (attempt == MAX_ATTEMPTS) {
+                    log.error("Giving up on batch of {} orders after {} attempts", batch.size(), attempt, e);
+                    flushIndividually(batch);
+                    return;
+                }
+                log.warn("Transient failure writing {} orders (attempt {}): {}", batch.size(), attempt, e.getMessage());
+                backoff(attempt);
+            } catch (DataAccessException e) {
+                // One bad order must not sink the whole batch
+                log.warn("Batch of {} orders failed, writing individually: {}", batch.size(), e.getMessage());
+                flushIndividually(batch);
+                return;
+            }
+        }
+    }
+
+    private void flushIndividually(List<QueuedOrder> batch) {
+        for (QueuedOrder order : batch) {
+            try {
+                batchWriter.write(List.of(order));
+                persisted(order);
+            } catch (TransientDataAccessException | RecoverableDataAccessException e) {
+                // Still pending and journaled; try again later rather than dropping it
+                retry(order, e);
+            } catch (DataAccessException e) {
+                log.error("Order {} rejected by the database: {}", order.orderNumber(), e.getMessage());
+                journal.markFailed(order.id());
+                pendingOrders.markFailed(order.id(), e);
+                retryAttempts.remove(order.id());
+            }
+        }
+    }
+
+    private void persisted(QueuedOrder order) {
+        journal.remove(order.id());
+        pendingOrders.markPersisted(order.id());
+        retryAttempts.remove(order.id());
+    }
+
+    private void retry(QueuedOrder order, DataAccessException cause) {
+        int attempt = retryAttempts.merge(order.id(), 1, Integer::sum);
+        long delay = Math.min(MAX_RETRY_DELAY_MILLIS, retryDelayMillis << Math.min(attempt - 1, 16));
+        log.error("Order {} could not be written (retry {} in {} ms): {}",
+                order.orderNumber(), attempt, delay, cause.getMessage());
+        retries.add(new RetryOrder(order, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay)));
+    }
+
+    private void backoff(int attempt) {
+        try {
+            Thread.sleep(Math.min(5000L, 100L << attempt));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record RetryOrder(QueuedOrder order, long dueNanos) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueNanos, ((RetryOrder) other).dueNanos);
+        }
+    }
+}
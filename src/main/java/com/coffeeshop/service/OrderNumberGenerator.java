@@ -0,0 +1,128 @@
+package com.coffeeshop.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Generates unique, monotonic order numbers without touching the database.
+ * Each number packs a millisecond timestamp, the node id and a per-millisecond
+ * sequence into 63 bits, encoded as 13 Crockford base32 characters
+ * (e.g. {@code ORD-01J8Z3K5Q2M7X}). Numbers sort by creation time.
+ * <p>
+ * Uniqueness across instances requires a distinct {@code orders.number.node-id} per instance.
+ * On startup the generator resumes after the highest stored order number, so a
+ * clock that went backwards across a restart cannot repeat numbers.
+ */
+@Component
+@Slf4j
+public class OrderNumberGenerator {
+
+    static final String PREFIX = "ORD-";
+
+    private static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final int ENCODED_LENGTH = 13;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    // Legacy random order numbers are shorter and never match
+    private static final String LAST_ISSUED_SQL =
+            "SELECT MAX(order_number) FROM orders WHERE order_number LIKE 'ORD-%' AND LENGTH(order_number) = "
+                    + (PREFIX.length() + ENCODED_LENGTH);
+
+    private final long nodeId;
+    private final LongSupplier clock;
+
+    // Last issued (timestamp << SEQUENCE_BITS | sequence)
+    private final AtomicLong state = new AtomicLong();
+
+    public OrderNumberGenerator(@Value("${orders.number.node-id:0}") long nodeId, JdbcTemplate jdbcTemplate) {
+        this(nodeId, System::currentTimeMillis);
+        String lastIssued = jdbcTemplate.queryForObject(LAST_ISSUED_SQL, String.class);
+        if (lastIssued != null) {
+            resumeAfter(lastIssued);
+            log.info("Order numbers resume after {}", lastIssued);
+        }
+    }
+
+    OrderNumberGenerator(long nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalStateException("orders.number.node-id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
+
+    public String next() {
+        return PREFIX + encode(nextId());
+    }
+
+    /**
+     * Next raw id. Lock-free: a CAS on a single word. When the sequence of the
+     * current millisecond is exhausted, or the clock goes backwards, the
+     * timestamp keeps advancing from the last issued value instead of waiting.
+     */
+    long nextId() {
+        long now = clock.getAsLong() - EPOCH_MILLIS;
+        long candidate = now << SEQUENCE_BITS;
+
+        long previous;
+        long next;
+        do {
+            previous = state.get();
+            // Same or earlier millisecond: take the next sequence (overflow carries into the timestamp)
+            next = candidate > previous ? candidate : previous + 1;
+        } while (!state.compareAndSet(previous, next));
+
+        long timestamp = next >>> SEQUENCE_BITS;
+        long sequence = next & SEQUENCE_MASK;
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+    }
+
+    /**
+     * Never issue a number at or below the given one, whatever the clock says.
+     */
+    void resumeAfter(String orderNumber) {
+        long id = decode(orderNumber.substring(PREFIX.length()));
+        long floor = ((id >>> (NODE_BITS + SEQUENCE_BITS)) << SEQUENCE_BITS) | (id & SEQUENCE_MASK);
+        state.accumulateAndGet(floor, Math::max);
+    }
+
+    /**
+     * Fixed-width encoding, so string order matches numeric order.
+     */
+    static String encode(long id) {
+        char[] chars = new char[ENCODED_LENGTH];
+        for (int i = ENCODED_LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    static long decode(String encoded) {
+        if (encoded.length() != ENCODED_LENGTH) {
+            throw new IllegalArgumentException("Order number must have " + ENCODED_LENGTH + " characters");
+        }
+        long id = 0;
+        for (int i = 0; i < ENCODED_LENGTH; i++) {
+            int digit = Arrays.binarySearch(ALPHABET, encoded.charAt(i));
+            if (digit < 0) {
+                throw new IllegalArgumentException("Invalid order number character: " + encoded.charAt(i));
+            }
+            id = (id << 5) | digit;
+        }
+        return id;
+    }
+}
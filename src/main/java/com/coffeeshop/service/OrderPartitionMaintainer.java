@@ -0,0 +1,213 @@
+package com.coffeeshop.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Maintains the monthly partitions of {@code orders} (see V8 migration).
+ * Creates partitions ahead of time and, when enabled, archives old months:
+ * their items move to {@code order_items_archive} and the partition is detached
+ * from {@code orders} and attached to {@code orders_archive}. Only months whose
+ * orders have all reached a terminal status and have a response snapshot are
+ * archived, so archived orders stay readable by id from their snapshot. Order
+ * history and export read {@code orders} only and no longer list them.
+ * <p>
+ * Rows that landed in {@code orders_default} (no partition existed for their
+ * month) are moved into the month's partition when it is created; rows that no
+ * partition will take are reported by the {@code orders.partitions.default.rows} gauge.
+ */
+@Component
+@Slf4j
+public class OrderPartitionMaintainer {
+
+    private static final String PARTITION_PREFIX = "orders_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    // Serializes maintenance across instances
+    private static final long ADVISORY_LOCK_KEY = 0x6F72646572730001L;
+
+    private static final String DEFAULT_PARTITION = "orders_default";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicLong defaultPartitionRows = new AtomicLong();
+
+    @Value("${orders.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${orders.archive.enabled:false}")
+    private boolean archiveEnabled;
+
+    @Value("${orders.archive.after-months:24}")
+    private int archiveAfterMonths;
+
+    public OrderPartitionMaintainer(JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        meterRegistry.gauge("orders.partitions.default.rows", defaultPartitionRows);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${orders.partitions.maintenance-cron:0 15 3 * * *}")
+    public void maintain() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Boolean locked = jdbcTemplate.queryForObject(
+                    "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, ADVISORY_LOCK_KEY);
+            if (!Boolean.TRUE.equals(locked)) {
+                log.debug("Order partition maintenance running elsewhere, skipping");
+                return;
+            }
+            createUpcomingPartitions();
+            checkDefaultPartition();
+        });
+
+        if (archiveEnabled) {
+            archiveOldPartitions();
+        }
+    }
+
+    private void createUpcomingPartitions() {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            createPartition(current.plusMonths(i));
+        }
+    }
+
+    /**
+     * Create a month's partition. Attaching a partition fails while the default
+     * partition holds rows in its range, so those are moved into it first.
+     */
+    private void createPartition(YearMonth month) {
+        String partition = partitionName(month);
+        Boolean exists = jdbcTemplate.queryForObject(
+                "SELECT to_regclass(?) IS NOT NULL", Boolean.class, partition);
+        if (Boolean.TRUE.equals(exists)) {
+            return;
+        }
+
+        String from = month.atDay(1).toString();
+        String to = month.plusMonths(1).atDay(1).toString();
+        jdbcTemplate.execute(String.format(
+                "CREATE TABLE %s (LIKE orders INCLUDING DEFAULTS INCLUDING CONSTRAINTS)", partition));
+        int moved = jdbcTemplate.update(String.format(
+                "WITH moved AS (DELETE FROM %s WHERE order_date >= '%s' AND order_date < '%s' RETURNING *) " +
+                "INSERT INTO %s SELECT * FROM moved", DEFAULT_PARTITION, from, to, partition));
+        jdbcTemplate.execute(String.format(
+                "ALTER TABLE orders ATTACH PARTITION %s FOR VALUES FROM ('%s') TO ('%s')", partition, from, to));
+
+        if (moved > 0) {
+            log.warn("Moved {} orders from {} into new partition {}", moved, DEFAULT_PARTITION, partition);
+        } else {
+            log.info("Created order partition {}", partition);
+        }
+    }
+
+    /**
+     * Whatever is still in the default partition fits no maintained month
+     * (e.g. dated far ahead, or in an archived month) and needs a look.
+     */
+    private void checkDefaultPartition() {
+        Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + DEFAULT_PARTITION, Long.class);
+        defaultPartitionRows.set(rows != null ? rows : 0);
+        if (rows != null && rows > 0) {
+            log.error("{} orders are in {} outside every monthly partition", rows, DEFAULT_PARTITION);
+        }
+    }
+
+    private void archiveOldPartitions() {
+        YearMonth cutoff = YearMonth.now().minusMonths(archiveAfterMonths);
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = 'orders'::regclass AND c.relname LIKE 'orders\\_p%' ORDER BY c.relname",
+                String.class);
+
+        for (String partition : partitions) {
+            YearMonth month = monthOf(partition);
+            if (month == null || !month.isBefore(cutoff)) {
+                continue;
+            }
+            try {
+                archive(partition, month);
+            } catch (DataAccessException e) {
+                log.error("Failed to archive order partition {}: {}", partition, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Move one month to cold storage in a single transaction.
+     */
+    private void archive(String partition, YearMonth month) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Boolean locked = jdbcTemplate.queryForObject(
+                    "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, ADVISORY_LOCK_KEY);
+            if (!Boolean.TRUE.equals(locked)) {
+                return;
+            }
+
+            Boolean hasOpenOrders = jdbcTemplate.queryForObject(String.format(
+                    "SELECT EXISTS (SELECT 1 FROM %s WHERE status NOT IN ('DELIVERED', 'CANCELLED', 'FAILED'))",
+                    partition), Boolean.class);
+            if (Boolean.TRUE.equals(hasOpenOrders)) {
+                log.warn("Order partition {} still has open orders, not archiving", partition);
+                return;
+            }
+
+            // Archived orders are only served from their snapshot
+            Boolean hasUnrenderedOrders = jdbcTemplate.queryForObject(String.format(
+                    "SELECT EXISTS (SELECT 1 FROM %s WHERE response_snapshot IS NULL)",
+                    partition), Boolean.class);
+            if (Boolean.TRUE.equals(hasUnrenderedOrders)) {
+                log.warn("Order partition {} has orders without a response snapshot, not archiving", partition);
+                return;
+            }
+
+            int items = jdbcTemplate.update(String.format(
+                    "INSERT INTO order_items_archive SELECT i.* FROM order_items i " +
+                    "WHERE i.order_id IN (SELECT id FROM %s)", partition));
+            jdbcTemplate.update(String.format(
+                    "DELETE FROM order_items WHERE order_id IN (SELECT id FROM %s)", partition));
+
+            jdbcTemplate.execute("ALTER TABLE orders DETACH PARTITION " + partition);
+            jdbcTemplate.execute(String.format(
+                    "ALTER TABLE orders_archive ATTACH PARTITION %s FOR VALUES FROM ('%s') TO ('%s')",
+                    partition, month.atDay(1), month.plusMonths(1).atDay(1)));
+
+            log.info("Archived order partition {} with {} items", partition, items);
+        });
+    }
+
+    private static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+    }
+
+    private static YearMonth monthOf(String partition) {
+        try {
+            return YearMonth.from(LocalDate.parse(partition.substring(PARTITION_PREFIX.length()) + "01",
+                    DateTimeFormatter.BASIC_ISO_DATE));
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -5,21 +5,35 @@ import com.coffeeshop.dto.OrderDTO;
 import com.coffeeshop.entity.*;
 import com.coffeeshop.enums.OrderStatus;
 import com.coffeeshop.exception.BadRequestException;
+import com.coffeeshop.exception.ConflictException;
 import com.coffeeshop.exception.ResourceNotFoundException;
+import com.coffeeshop.exception.TooManyRequestsException;
 import com.coffeeshop.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -30,10 +44,36 @@ import java.util.stream.Collectors;
 @Slf4j
 public class OrderService {
 
+    // Guarded set-based transition; returns the ids that actually moved
+    private static final String BULK_TRANSITION_SQL =
+            "UPDATE orders SET status = ?, actual_delivery_time = COALESCE(?, actual_delivery_time), " +
+            "updated_at = ?, version = version + 1 " +
+            "WHERE id = ANY(?) AND status = ANY(?) RETURNING id";
+
     private final OrderRepository orderRepository;
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
     private final AddressRepository addressRepository;
+    private final OrderIdAllocator idAllocator;
+    private final OrderNumberGenerator orderNumberGenerator;
+    private final PendingOrderRegistry pendingOrders;
+    private final OrderEventStream orderEvents;
+    private final KitchenQueue kitchenQueue;
+    private final SalesRollupService salesRollups;
+    private final OrderSnapshotStore snapshots;
+    private final PricingEngine pricingEngine;
+    private final ModifierCatalog modifierCatalog;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${orders.kitchen.delivery-minutes:15}")
+    private long deliveryMinutes;
+
+    @Value("${orders.history.max-page-size:50}")
+    private int maxPageSize;
+
+    @Value("${orders.async-intake.await-timeout-ms:2000}")
+    private long pendingAwaitTimeoutMillis;
 
     /**
      * Create a new order.
@@ -42,9 +82,38 @@ public class OrderService {
     public OrderDTO.OrderResponse createOrder(Long userId, OrderDTO.CreateOrderRequest request) {
         log.info("Creating order for user ID: {}", userId);
 
-        // Validate user
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        Order order = buildOrder(userId, request);
+
+        // Save order
+        order = orderRepository.save(order);
+        log.info("Order created successfully with order number: {}", order.getOrderNumber());
+
+        return convertToOrderResponse(order);
+    }
+
+    /**
+     * Validate an order for asynchronous intake and assign its ids without saving it.
+     * Not read-only: id allocation advances the sequences.
+     */
+    @Transactional
+    public QueuedOrder prepareForIntake(Long userId, OrderDTO.CreateOrderRequest request) {
+        log.info("Preparing order for asynchronous intake for user ID: {}", userId);
+
+        Order order = buildOrder(userId, request);
+        order.setId(idAllocator.nextOrderId());
+        for (OrderItem item : order.getOrderItems()) {
+            item.setId(idAllocator.nextOrderItemId());
+        }
+
+        return QueuedOrder.of(order, userId, convertToOrderResponse(order));
+    }
+
+    /**
+     * Build and validate a new, unsaved order.
+     */
+    private Order buildOrder(Long userId, OrderDTO.CreateOrderRequest request) {
+        // The caller is the authenticated user, so a reference is enough
+        User user = userRepository.getReferenceById(userId);
 
         // Validate delivery address
         Address deliveryAddress = addressRepository.findById(request.getDeliveryAddressId())
@@ -57,31 +126,24 @@ public class OrderService {
         // Create order
         Order order = Order.builder()
                 .user(user)
-                .orderNumber(generateOrderNumber())
+                .orderNumber(orderNumberGenerator.next())
                 .orderDate(LocalDateTime.now())
                 .status(OrderStatus.PENDING)
                 .paymentMethod(request.getPaymentMethod())
                 .deliveryAddress(deliveryAddress)
                 .specialInstructions(request.getSpecialInstructions())
-                .deliveryFee(BigDecimal.valueOf(2.99)) // Fixed delivery fee
-                .estimatedDeliveryTime(LocalDateTime.now().plusMinutes(30))
                 .build();
 
         // Add order items
+        Map<Long, Product> products = resolveProducts(request.getItems());
         for (OrderDTO.OrderItemRequest itemRequest : request.getItems()) {
-            Product product = productRepository.findById(itemRequest.getProductId())
-                    .orElseThrow(() -> new ResourceNotFoundException(
-                            "Product not found with ID: " + itemRequest.getProductId()));
-
-            if (!product.getAvailable()) {
-                throw new BadRequestException("Product is not available: " + product.getName());
-            }
+            Product product = products.get(itemRequest.getProductId());
 
             OrderItem orderItem = OrderItem.builder()
                     .product(product)
                     .quantity(itemRequest.getQuantity())
-                    .price(product.getPrice())
                     .size(itemRequest.getSize())
+                    .modifierIds(modifierCatalog.validate(product, itemRequest.getModifierIds()))
                     .customizations(itemRequest.getCustomizations())
                     .notes(itemRequest.getNotes())
                     .build();
@@ -89,14 +151,14 @@ public class OrderService {
             order.addOrderItem(orderItem);
         }
 
-        // Calculate totals
-        order.calculateTotals();
+        // Size-adjusted unit prices, jurisdiction tax and totals
+        pricingEngine.price(order);
 
-        // Save order
-        order = orderRepository.save(order);
-        log.info("Order created successfully with order number: {}", order.getOrderNumber());
+        // Ready when the current kitchen backlog and this order's prep are done, then delivered
+        order.setEstimatedDeliveryTime(kitchenQueue.estimateReadyTime(kitchenQueue.prepSeconds(order))
+                .plusMinutes(deliveryMinutes));
 
-        return convertToOrderResponse(order);
+        return order;
     }
 
     /**
@@ -106,14 +168,30 @@ public class OrderService {
     public OrderDTO.OrderResponse getOrderById(Long orderId, Long userId) {
         log.info("Fetching order with ID: {} for user: {}", orderId, userId);
 
-        Order order = orderRepository.findById(orderId)
+        // Accepted by asynchronous intake but not written yet
+        Optional<QueuedOrder> pending = pendingOrders.find(orderId);
+        if (pending.isPresent()) {
+            if (!pending.get().userId().equals(userId)) {
+                throw new BadRequestException("Order does not belong to the user");
+            }
+            return pending.get().response();
+        }
+
+        OrderSnapshotStore.Snapshot snapshot = snapshots.find(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
 
         // Verify order belongs to user
-        if (!order.getUser().getId().equals(userId)) {
+        if (!snapshot.userId().equals(userId)) {
             throw new BadRequestException("Order does not belong to the user");
         }
 
+        // Completed orders are served from their snapshot without loading the graph
+        if (snapshot.response() != null) {
+            return snapshot.response();
+        }
+
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
         return convertToOrderResponse(order);
     }
 
@@ -124,9 +202,45 @@ public class OrderService {
     public Page<OrderDTO.OrderSummaryResponse> getUserOrders(Long userId, int page, int size) {
         log.info("Fetching orders for user ID: {}", userId);
         
-        Pageable pageable = PageRequest.of(page, size, Sort.by("orderDate").descending());
-        return orderRepository.findByUserId(userId, pageable)
-                .map(this::convertToOrderSummary);
+        Pageable pageable = PageRequest.of(Math.max(page, 0), clampPageSize(size), Sort.by("orderDate").descending());
+        return orderRepository.findSummariesByUserId(userId, pageable);
+    }
+
+    /**
+     * Get a page of order history after a cursor, without counting all orders.
+     */
+    @Transactional(readOnly = true)
+    public OrderDTO.OrderHistoryPage getOrderHistory(Long userId, String cursor, int size) {
+        log.info("Fetching order history for user ID: {}", userId);
+
+        int pageSize = clampPageSize(size);
+        // Fetch one extra row to know whether another page follows
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<OrderDTO.OrderSummaryResponse> orders;
+        if (cursor == null || cursor.isBlank()) {
+            orders = orderRepository.findHistoryFirstPage(userId, limit);
+        } else {
+            OrderHistoryCursor position = OrderHistoryCursor.decode(cursor);
+            orders = orderRepository.findHistoryPageAfter(userId, position.orderDate(), position.id(), limit);
+        }
+
+        boolean hasMore = orders.size() > pageSize;
+        if (hasMore) {
+            orders = orders.subList(0, pageSize);
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            OrderDTO.OrderSummaryResponse last = orders.get(orders.size() - 1);
+            nextCursor = new OrderHistoryCursor(last.getOrderDate(), last.getId()).encode();
+        }
+
+        return OrderDTO.OrderHistoryPage.builder()
+                .orders(orders)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
     }
 
     /**
@@ -136,10 +250,14 @@ public class OrderService {
     public List<OrderDTO.OrderResponse> getActiveOrders(Long userId) {
         log.info("Fetching active orders for user ID: {}", userId);
         
+        // Read pending orders first: one flushed in between then shows up in both, never in neither
+        Map<Long, OrderDTO.OrderResponse> orders = new LinkedHashMap<>();
+        pendingOrders.findByUserId(userId).forEach(order -> orders.put(order.getId(), order));
+
         List<Order> activeOrders = orderRepository.findActiveOrdersByUserId(userId);
-        return activeOrders.stream()
-                .map(this::convertToOrderResponse)
-                .collect(Collectors.toList());
+        activeOrders.forEach(order -> orders.put(order.getId(), convertToOrderResponse(order)));
+
+        return new ArrayList<>(orders.values());
     }
 
     /**
@@ -150,20 +268,131 @@ public class OrderService {
             Long orderId, OrderDTO.UpdateOrderStatusRequest request) {
         log.info("Updating order status for order ID: {} to {}", orderId, request.getStatus());
 
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
+        OrderStatus target = request.getStatus();
+        LocalDateTime now = LocalDateTime.now();
+        // Set delivery time if order is delivered
+        LocalDateTime deliveredAt = target == OrderStatus.DELIVERED ? now : null;
 
-        order.setStatus(request.getStatus());
+        pendingOrders.awaitPersisted(orderId, pendingAwaitTimeoutMillis);
+        int updated = orderRepository.transitionStatus(
+                orderId, target.allowedPredecessors(), target, deliveredAt, now);
+        if (updated == 0) {
+            throw transitionFailure(orderId, null, target);
+        }
+        if (target.isTerminal()) {
+            salesRollups.recordTerminalOrder(orderId);
+        }
+        log.info("Order status updated successfully");
 
-        // Set delivery time if order is delivered
-        if (request.getStatus() == OrderStatus.DELIVERED) {
-            order.setActualDeliveryTime(LocalDateTime.now());
+        return loadAndPublish(orderId);
+    }
+
+    /**
+     * Move many orders to one status with a single guarded update. Orders that
+     * cannot make the transition are reported per order instead of failing the request.
+     * Orders still pending in asynchronous intake are awaited before the transaction
+     * starts; those that do not get written in time are reported as not updated.
+     */
+    public OrderDTO.BulkUpdateOrderStatusResponse bulkUpdateOrderStatus(
+            OrderDTO.BulkUpdateOrderStatusRequest request) {
+        OrderStatus target = request.getStatus();
+        List<Long> orderIds = new ArrayList<>(new LinkedHashSet<>(request.getOrderIds()));
+        log.info("Bulk updating status of {} orders to {}", orderIds.size(), target);
+
+        Map<Long, RuntimeException> notPersisted = new HashMap<>();
+        for (Long orderId : orderIds) {
+            try {
+                pendingOrders.awaitPersisted(orderId, pendingAwaitTimeoutMillis);
+            } catch (TooManyRequestsException | ResourceNotFoundException e) {
+                notPersisted.put(orderId, e);
+            }
+        }
+        List<Long> candidateIds = orderIds.stream()
+                .filter(orderId -> !notPersisted.containsKey(orderId))
+                .toList();
+
+        List<OrderDTO.OrderStatusOutcome> outcomes = candidateIds.isEmpty()
+                ? List.of()
+                : transactionTemplate.execute(status -> applyBulkTransition(candidateIds, target));
+        Map<Long, OrderDTO.OrderStatusOutcome> outcomesById = outcomes.stream()
+                .collect(Collectors.toMap(OrderDTO.OrderStatusOutcome::getOrderId, Function.identity()));
+
+        List<OrderDTO.OrderStatusOutcome> results = new ArrayList<>(orderIds.size());
+        for (Long orderId : orderIds) {
+            RuntimeException failure = notPersisted.get(orderId);
+            results.add(failure == null
+                    ? outcomesById.get(orderId)
+                    : OrderDTO.OrderStatusOutcome.builder()
+                            .orderId(orderId)
+                            .updated(false)
+                            .error(failure.getMessage())
+                            .build());
         }
+        int updated = (int) results.stream().filter(OrderDTO.OrderStatusOutcome::isUpdated).count();
+        log.info("Bulk status update to {}: {} of {} orders updated", target, updated, orderIds.size());
+
+        return OrderDTO.BulkUpdateOrderStatusResponse.builder()
+                .status(target)
+                .requested(orderIds.size())
+                .updated(updated)
+                .results(results)
+                .build();
+    }
 
-        order = orderRepository.save(order);
-        log.info("Order status updated successfully");
+    /**
+     * The transactional part of a bulk update: one guarded UPDATE, then one status
+     * read to explain the orders that did not move.
+     */
+    private List<OrderDTO.OrderStatusOutcome> applyBulkTransition(List<Long> orderIds, OrderStatus target) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime deliveredAt = target == OrderStatus.DELIVERED ? now : null;
+        String[] allowedFrom = target.allowedPredecessors().stream()
+                .map(OrderStatus::name)
+                .toArray(String[]::new);
+
+        Set<Long> updatedIds = new HashSet<>(jdbcTemplate.query(BULK_TRANSITION_SQL, ps -> {
+            ps.setString(1, target.name());
+            ps.setTimestamp(2, deliveredAt != null ? Timestamp.valueOf(deliveredAt) : null);
+            ps.setTimestamp(3, Timestamp.valueOf(now));
+            ps.setArray(4, ps.getConnection().createArrayOf("bigint", orderIds.toArray()));
+            ps.setArray(5, ps.getConnection().createArrayOf("varchar", allowedFrom));
+        }, (rs, rowNum) -> rs.getLong(1)));
+
+        if (!updatedIds.isEmpty()) {
+            if (target.isTerminal()) {
+                salesRollups.recordTerminalOrders(updatedIds);
+            }
+            orderRepository.findByIdIn(updatedIds).forEach(this::publish);
+        }
 
-        return convertToOrderResponse(order);
+        // Explain the rest with one status read
+        List<Long> rejectedIds = orderIds.stream()
+                .filter(orderId -> !updatedIds.contains(orderId))
+                .toList();
+        Map<Long, OrderRepository.StatusView> current = rejectedIds.isEmpty()
+                ? Map.of()
+                : orderRepository.findStatusesByIdIn(rejectedIds).stream()
+                        .collect(Collectors.toMap(OrderRepository.StatusView::getId, Function.identity()));
+
+        List<OrderDTO.OrderStatusOutcome> outcomes = new ArrayList<>(orderIds.size());
+        for (Long orderId : orderIds) {
+            if (updatedIds.contains(orderId)) {
+                outcomes.add(OrderDTO.OrderStatusOutcome.builder()
+                        .orderId(orderId)
+                        .updated(true)
+                        .status(target)
+                        .build());
+            } else {
+                OrderRepository.StatusView view = current.get(orderId);
+                outcomes.add(OrderDTO.OrderStatusOutcome.builder()
+                        .orderId(orderId)
+                        .updated(false)
+                        .status(view != null ? view.getStatus() : null)
+                        .error(rejection(view, null, target).getMessage())
+                        .build());
+            }
+        }
+        return outcomes;
     }
 
     /**
@@ -173,32 +402,105 @@ public class OrderService {
     public OrderDTO.OrderResponse cancelOrder(Long orderId, Long userId) {
         log.info("Cancelling order ID: {} for user: {}", orderId, userId);
 
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
+        pendingOrders.awaitPersisted(orderId, pendingAwaitTimeoutMillis);
+        int updated = orderRepository.transitionUserOrderStatus(
+                orderId, userId, OrderStatus.CANCELLED.allowedPredecessors(),
+                OrderStatus.CANCELLED, LocalDateTime.now());
+        if (updated == 0) {
+            throw transitionFailure(orderId, userId, OrderStatus.CANCELLED);
+        }
+        salesRollups.recordTerminalOrder(orderId);
+
+        log.info("Order cancelled successfully");
+        return loadAndPublish(orderId);
+    }
 
+    /**
+     * Explain why a guarded status update matched no row.
+     */
+    private RuntimeException transitionFailure(Long orderId, Long userId, OrderStatus target) {
+        return rejection(orderRepository.findStatusById(orderId).orElse(null), userId, target);
+    }
+
+    private static RuntimeException rejection(OrderRepository.StatusView current, Long userId, OrderStatus target) {
+        if (current == null) {
+            return new ResourceNotFoundException("Order not found");
+        }
         // Verify order belongs to user
-        if (!order.getUser().getId().equals(userId)) {
-            throw new BadRequestException("Order does not belong to the user");
+        if (userId != null && !current.getUserId().equals(userId)) {
+            return new BadRequestException("Order does not belong to the user");
         }
-
-        // Check if order can be cancelled
-        if (order.getStatus() == OrderStatus.DELIVERED || 
-            order.getStatus() == OrderStatus.CANCELLED) {
-            throw new BadRequestException("Order cannot be cancelled");
+        if (!current.getStatus().canTransitionTo(target)) {
+            String action = target == OrderStatus.CANCELLED ? "be cancelled" : "move to " + target;
+            return new ConflictException("Order in status " + current.getStatus() + " cannot " + action);
         }
+        // Allowed now, so the status changed between the update and this read
+        return new ConflictException("Order status was changed concurrently, please retry");
+    }
 
-        order.setStatus(OrderStatus.CANCELLED);
-        order = orderRepository.save(order);
-        
-        log.info("Order cancelled successfully");
-        return convertToOrderResponse(order);
+    private OrderDTO.OrderResponse loadAndPublish(Long orderId) {
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
+        return publish(order);
+    }
+
+    /**
+     * Propagate a status change to the kitchen queue and the owner's order streams
+     * (both after commit) and, for terminal statuses, store the response snapshot.
+     */
+    private OrderDTO.OrderResponse publish(Order order) {
+        kitchenQueue.onStatusChangeAfterCommit(order);
+        publishStatusChange(order);
+
+        OrderDTO.OrderResponse response = convertToOrderResponse(order);
+        snapshots.save(response);
+        return response;
     }
 
     /**
-     * Generate unique order number.
+     * Push the new status to the owner's open order streams once committed.
      */
-    private String generateOrderNumber() {
-        return "ORD-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    private void publishStatusChange(Order order) {
+        orderEvents.publishAfterCommit(order.getUser().getId(), OrderDTO.OrderStatusEvent.builder()
+                .orderId(order.getId())
+                .orderNumber(order.getOrderNumber())
+                .status(order.getStatus())
+                .estimatedDeliveryTime(order.getEstimatedDeliveryTime())
+                .actualDeliveryTime(order.getActualDeliveryTime())
+                .changedAt(LocalDateTime.now())
+                .build());
+    }
+
+    private int clampPageSize(int size) {
+        return Math.min(Math.max(size, 1), maxPageSize);
+    }
+
+    /**
+     * Load all products of an order in one query, reporting every missing or
+     * unavailable product together.
+     */
+    private Map<Long, Product> resolveProducts(List<OrderDTO.OrderItemRequest> items) {
+        Set<Long> productIds = items.stream()
+                .map(OrderDTO.OrderItemRequest::getProductId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        Map<Long, Product> products = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        List<String> problems = new ArrayList<>();
+        for (Long productId : productIds) {
+            Product product = products.get(productId);
+            if (product == null) {
+                problems.add("Product not found with ID: " + productId);
+            } else if (!product.getAvailable()) {
+                problems.add("Product is not available: " + product.getName());
+            }
+        }
+
+        if (!problems.isEmpty()) {
+            throw new BadRequestException(String.join("; ", problems));
+        }
+        return products;
     }
 
     /**
@@ -238,11 +540,24 @@ public class OrderService {
                 .quantity(item.getQuantity())
                 .price(item.getPrice())
                 .size(item.getSize())
+                .modifierIds(toIdList(item.getModifierIds()))
+                .modifiers(modifierCatalog.names(item.getModifierIds()))
                 .customizations(item.getCustomizations())
                 .notes(item.getNotes())
                 .build();
     }
 
+    private static List<Integer> toIdList(short[] ids) {
+        if (ids == null) {
+            return List.of();
+        }
+        List<Integer> list = new ArrayList<>(ids.length);
+        for (short id : ids) {
+            list.add((int) id);
+        }
+        return list;
+    }
+
     /**
      * Convert Address to AddressResponse.
      */
@@ -262,18 +577,4 @@ public class OrderService {
                 .deliveryInstructions(address.getDeliveryInstructions())
                 .build();
     }
-
-    /**
-     * Convert Order to OrderSummaryResponse.
-     */
-    private OrderDTO.OrderSummaryResponse convertToOrderSummary(Order order) {
-        return OrderDTO.OrderSummaryResponse.builder()
-                .id(order.getId())
-                .orderNumber(order.getOrderNumber())
-                .orderDate(order.getOrderDate())
-                .status(order.getStatus())
-                .totalAmount(order.getTotalAmount())
-                .itemCount(order.getOrderItems().size())
-                .build();
-    }
 }
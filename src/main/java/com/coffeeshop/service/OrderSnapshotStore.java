@@ -0,0 +1,70 @@
+package com.coffeeshop.service;
+
+import com.coffeeshop.dto.OrderDTO;
+import com.coffeeshop.repository.OrderRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Rendered responses of orders in a terminal status, stored as JSONB on the order row.
+ * Reading one is a single-row lookup instead of loading items, products and address,
+ * and keeps showing product names and prices as they were when the order completed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderSnapshotStore {
+
+    private final OrderRepository orderRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Snapshot lookup result. {@code response} is null when the order has no snapshot yet.
+     */
+    public record Snapshot(Long userId, OrderDTO.OrderResponse response) {
+    }
+
+    /**
+     * Store the response of an order that just reached a terminal status.
+     * An existing snapshot is never overwritten.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void save(OrderDTO.OrderResponse response) {
+        if (!response.getStatus().isTerminal()) {
+            return;
+        }
+        try {
+            orderRepository.saveResponseSnapshot(response.getId(), objectMapper.writeValueAsString(response));
+        } catch (JsonProcessingException e) {
+            // Reads fall back to the live rows
+            log.error("Failed to render snapshot for order {}: {}", response.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Owner and snapshot of an order, or empty if the order does not exist.
+     */
+    public Optional<Snapshot> find(Long orderId) {
+        return orderRepository.findSnapshotById(orderId)
+                .map(view -> new Snapshot(view.getUserId(), parse(orderId, view.getSnapshot())));
+    }
+
+    private OrderDTO.OrderResponse parse(Long orderId, String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, OrderDTO.OrderResponse.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring unreadable snapshot for order {}: {}", orderId, e.getMessage());
+            return null;
+        }
+    }
+}
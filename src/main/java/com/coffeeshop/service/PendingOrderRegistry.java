@@ -0,0 +1,92 @@
+package com.coffeeshop.service;
+
+import com.coffeeshop.dto.OrderDTO;
+import com.coffeeshop.exception.ResourceNotFoundException;
+import com.coffeeshop.exception.TooManyRequestsException;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Orders accepted by asynchronous intake that are not yet committed.
+ * Lets reads see pending orders until the writer has flushed them.
+ */
+@Component
+public class PendingOrderRegistry {
+
+    private final Map<Long, PendingOrder> pending = new ConcurrentHashMap<>();
+
+    public void add(QueuedOrder order) {
+        pending.put(order.id(), new PendingOrder(order, new CompletableFuture<>()));
+    }
+
+    public Optional<QueuedOrder> find(Long orderId) {
+        PendingOrder entry = pending.get(orderId);
+        return entry != null ? Optional.of(entry.order()) : Optional.empty();
+    }
+
+    /**
+     * Pending orders of a user, newest first.
+     */
+    public List<OrderDTO.OrderResponse> findByUserId(Long userId) {
+        if (pending.isEmpty()) {
+            return List.of();
+        }
+        return pending.values().stream()
+                .map(PendingOrder::order)
+                .filter(order -> order.userId().equals(userId))
+                .sorted((a, b) -> b.orderDate().compareTo(a.orderDate()))
+                .map(QueuedOrder::response)
+                .toList();
+    }
+
+    public void markPersisted(Long orderId) {
+        PendingOrder entry = pending.remove(orderId);
+        if (entry != null) {
+            entry.persisted().complete(null);
+        }
+    }
+
+    public void markFailed(Long orderId, Throwable cause) {
+        PendingOrder entry = pending.remove(orderId);
+        if (entry != null) {
+            entry.persisted().completeExceptionally(cause);
+        }
+    }
+
+    /**
+     * Wait until a pending order is written, so it can be modified in the database.
+     * Returns immediately for orders that are not pending.
+     */
+    public void awaitPersisted(Long orderId, long timeoutMillis) {
+        PendingOrder entry = pending.get(orderId);
+        if (entry == null) {
+            return;
+        }
+
+        try {
+            entry.persisted().get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new TooManyRequestsException("Order is still being processed, please retry shortly");
+        } catch (ExecutionException e) {
+            throw new ResourceNotFoundException("Order not found");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for order", e);
+        }
+    }
+
+    public int size() {
+        return pending.size();
+    }
+
+    private record PendingOrder(QueuedOrder order, CompletableFuture<Void> persisted) {
+    }
+}
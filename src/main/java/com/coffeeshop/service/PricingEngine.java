@@ -0,0 +1,188 @@
+package com.coffeeshop.service;
+
+import com.coffeeshop.entity.Address;
+import com.coffeeshop.entity.Order;
+import com.coffeeshop.entity.OrderItem;
+import com.coffeeshop.entity.Product;
+import com.coffeeshop.enums.CoffeeSize;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Prices orders in integer cents: product base price plus per-size and modifier deltas,
+ * tax by delivery jurisdiction (state, then country, then default) and the delivery fee.
+ * Tables are built once at startup; {@link BigDecimal} is only used to read product
+ * prices and to write amounts back to the order.
+ */
+@Component
+public class PricingEngine {
+
+    private static final int BASIS_POINTS = 10_000;
+
+    // Indexed by CoffeeSize ordinal
+    private final long[] sizeDeltaCents = new long[CoffeeSize.values().length];
+    private final long deliveryFeeCents;
+    private final int defaultTaxBasisPoints;
+    // Upper-cased country -> rate, and country -> state -> rate
+    private final Map<String, Integer> countryTaxBasisPoints = new HashMap<>();
+    private final Map<String, Map<String, Integer>> stateTaxBasisPoints = new HashMap<>();
+
+    // Product id -> base price in cents, recomputed when the product version changes
+    private final ConcurrentMap<Long, BasePrice> basePrices = new ConcurrentHashMap<>();
+
+    private final ModifierCatalog modifierCatalog;
+
+    public PricingEngine(ModifierCatalog modifierCatalog,
+                         @Value("${pricing.size-delta-cents.small:-50}") long smallDelta,
+                         @Value("${pricing.size-delta-cents.medium:0}") long mediumDelta,
+                         @Value("${pricing.size-delta-cents.large:50}") long largeDelta,
+                         @Value("${pricing.size-delta-cents.extra-large:100}") long extraLargeDelta,
+                         @Value("${pricing.delivery-fee-cents:299}") long deliveryFeeCents,
+                         @Value("${pricing.tax.default-percent:10}") String defaultTaxPercent,
+                         @Value("${pricing.tax.rates:}") String taxRates) {
+        this.modifierCatalog = modifierCatalog;
+        sizeDeltaCents[CoffeeSize.SMALL.ordinal()] = smallDelta;
+        sizeDeltaCents[CoffeeSize.MEDIUM.ordinal()] = mediumDelta;
+        sizeDeltaCents[CoffeeSize.LARGE.ordinal()] = largeDelta;
+        sizeDeltaCents[CoffeeSize.EXTRA_LARGE.ordinal()] = extraLargeDelta;
+        this.deliveryFeeCents = deliveryFeeCents;
+        this.defaultTaxBasisPoints = toBasisPoints(defaultTaxPercent);
+        parseTaxRates(taxRates);
+    }
+
+    /**
+     * Price an order in place: unit price of every item, subtotal, tax, delivery fee and total.
+     */
+    public void price(Order order) {
+        List<OrderItem> items = order.getOrderItems();
+        long subtotal = 0;
+        for (int i = 0; i < items.size(); i++) {
+            OrderItem item = items.get(i);
+            long unit = unitPriceCents(item.getProduct(), item.getSize())
+                    + modifierCatalog.priceDeltaCents(item.getModifierIds());
+            item.setPrice(toAmount(unit));
+            subtotal = Math.addExact(subtotal, Math.multiplyExact(unit, (long) item.getQuantity()));
+        }
+
+        long tax = taxCents(subtotal, taxBasisPoints(order.getDeliveryAddress()));
+        order.setSubtotal(toAmount(subtotal));
+        order.setTax(toAmount(tax));
+        order.setDeliveryFee(toAmount(deliveryFeeCents));
+        order.setTotalAmount(toAmount(subtotal + tax + deliveryFeeCents));
+    }
+
+    /**
+     * Price of one unit of a product in the given size (no size means the base price).
+     */
+    public long unitPriceCents(Product product, CoffeeSize size) {
+        long base = baseCents(product);
+        return size == null ? base : Math.max(0, base + sizeDeltaCents[size.ordinal()]);
+    }
+
+    /**
+     * Subtotal of the first {@code count} lines, without allocating.
+     */
+    public static long subtotalCents(long[] unitCents, int[] quantities, int count) {
+        long subtotal = 0;
+        for (int i = 0; i < count; i++) {
+            subtotal = Math.addExact(subtotal, Math.multiplyExact(unitCents[i], (long) quantities[i]));
+        }
+        return subtotal;
+    }
+
+    /**
+     * Tax on an amount, rounded half up to the cent.
+     */
+    public static long taxCents(long amountCents, int basisPoints) {
+        return (Math.multiplyExact(amountCents, (long) basisPoints) + BASIS_POINTS / 2) / BASIS_POINTS;
+    }
+
+    /**
+     * Tax rate for a delivery address in basis points (1/100 of a percent).
+     */
+    public int taxBasisPoints(Address address) {
+        if (address == null || address.getCountry() == null) {
+            return defaultTaxBasisPoints;
+        }
+        String country = normalize(address.getCountry());
+        if (address.getState() != null) {
+            Map<String, Integer> states = stateTaxBasisPoints.get(country);
+            Integer rate = states == null ? null : states.get(normalize(address.getState()));
+            if (rate != null) {
+                return rate;
+            }
+        }
+        return countryTaxBasisPoints.getOrDefault(country, defaultTaxBasisPoints);
+    }
+
+    public long getDeliveryFeeCents() {
+        return deliveryFeeCents;
+    }
+
+    public static BigDecimal toAmount(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    public static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private long baseCents(Product product) {
+        Long id = product.getId();
+        if (id == null) {
+            return toCents(product.getPrice());
+        }
+        BasePrice cached = basePrices.get(id);
+        if (cached == null || !Objects.equals(cached.version(), product.getVersion())) {
+            cached = new BasePrice(product.getVersion(), toCents(product.getPrice()));
+            basePrices.put(id, cached);
+        }
+        return cached.cents();
+    }
+
+    /**
+     * Parse "US=8,US-WA=10.25,GB=20" (percent per country or country-state).
+     */
+    private void parseTaxRates(String taxRates) {
+        if (taxRates == null || taxRates.isBlank()) {
+            return;
+        }
+        for (String entry : taxRates.split(",")) {
+            String[] parts = entry.split("=");
+            if (parts.length != 2) {
+                throw new IllegalStateException("Invalid pricing.tax.rates entry: " + entry);
+            }
+            String jurisdiction = normalize(parts[0]);
+            int rate = toBasisPoints(parts[1]);
+            int dash = jurisdiction.indexOf('-');
+            if (dash < 0) {
+                countryTaxBasisPoints.put(jurisdiction, rate);
+            } else {
+                stateTaxBasisPoints
+                        .computeIfAbsent(jurisdiction.substring(0, dash), country -> new HashMap<>())
+                        .put(jurisdiction.substring(dash + 1), rate);
+            }
+        }
+    }
+
+    private static int toBasisPoints(String percent) {
+        return new BigDecimal(percent.trim()).movePointRight(2).intValueExact();
+    }
+
+    private static String normalize(String code) {
+        return code.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private record BasePrice(Long version, long cents) {
+    }
+}
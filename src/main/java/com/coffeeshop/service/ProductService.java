@@ -28,6 +28,7 @@ import java.util.stream.Collectors;
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final ModifierCatalog modifierCatalog;
 
     /**
      * Get all products with pagination.
@@ -53,6 +54,16 @@ public class ProductService {
         return convertToDetailResponse(product);
     }
 
+    /**
+     * Get the modifier groups and options offered for a product.
+     */
+    public List<ProductDTO.ModifierGroupResponse> getProductModifiers(Long id) {
+        if (!productRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Product not found with ID: " + id);
+        }
+        return modifierCatalog.forProduct(id);
+    }
+
     /**
      * Get products by category.
      */
@@ -0,0 +1,81 @@
+package com.coffeeshop.service;
+
+import com.coffeeshop.dto.OrderDTO;
+import com.coffeeshop.entity.Order;
+import com.coffeeshop.entity.OrderItem;
+import com.coffeeshop.enums.CoffeeSize;
+import com.coffeeshop.enums.OrderStatus;
+import com.coffeeshop.enums.PaymentMethod;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Validated order accepted by asynchronous intake but not yet written to the database.
+ * Ids are pre-allocated from the entity sequences, so the order can be read back
+ * by id before it is persisted. Also the journal record format.
+ */
+public record QueuedOrder(
+        Long id,
+        Long userId,
+        String orderNumber,
+        LocalDateTime orderDate,
+        OrderStatus status,
+        BigDecimal subtotal,
+        BigDecimal tax,
+        BigDecimal deliveryFee,
+        BigDecimal totalAmount,
+        PaymentMethod paymentMethod,
+        Long deliveryAddressId,
+        String specialInstructions,
+        LocalDateTime estimatedDeliveryTime,
+        List<Item> items,
+        OrderDTO.OrderResponse response) {
+
+    public record Item(
+            Long id,
+            Long productId,
+            Integer quantity,
+            BigDecimal price,
+            CoffeeSize size,
+            short[] modifierIds,
+            String customizations,
+            String notes) {
+    }
+
+    static QueuedOrder of(Order order, Long userId, OrderDTO.OrderResponse response) {
+        List<Item> items = order.getOrderItems().stream()
+                .map(QueuedOrder::toItem)
+                .toList();
+
+        return new QueuedOrder(
+                order.getId(),
+                userId,
+                order.getOrderNumber(),
+                order.getOrderDate(),
+                order.getStatus(),
+                order.getSubtotal(),
+                order.getTax(),
+                order.getDeliveryFee(),
+                order.getTotalAmount(),
+                order.getPaymentMethod(),
+                order.getDeliveryAddress().getId(),
+                order.getSpecialInstructions(),
+                order.getEstimatedDeliveryTime(),
+                items,
+                response);
+    }
+
+    private static Item toItem(OrderItem item) {
+        return new Item(
+                item.getId(),
+                item.getProduct().getId(),
+                item.getQuantity(),
+                item.getPrice(),
+                item.getSize(),
+                item.getModifierIds(),
+                item.getCustomizations(),
+                item.getNotes());
+    }
+}
@@ -0,0 +1,148 @@
+package com.coffeeshop.service;
+
+import com.coffeeshop.dto.ReportDTO;
+import com.coffeeshop.exception.BadRequestException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Sales reports served from the rollup tables only; never scans orders.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SalesReportService {
+
+    private static final int MAX_RANGE_DAYS = 366;
+    private static final int MAX_TOP_PRODUCTS = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Totals over an inclusive date range, e.g. month to date.
+     */
+    public ReportDTO.SalesSummary getSummary(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        log.info("Fetching sales summary from {} to {}", from, to);
+
+        return jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(delivered_orders), 0), COALESCE(SUM(cancelled_orders), 0), " +
+                "COALESCE(SUM(revenue), 0), COALESCE(SUM(items_sold), 0) " +
+                "FROM sales_daily WHERE bucket_date BETWEEN ? AND ?",
+                (rs, rowNum) -> {
+                    long delivered = rs.getLong(1);
+                    BigDecimal revenue = rs.getBigDecimal(3);
+                    return ReportDTO.SalesSummary.builder()
+                            .from(from)
+                            .to(to)
+                            .deliveredOrders(delivered)
+                            .cancelledOrders(rs.getLong(2))
+                            .revenue(revenue)
+                            .itemsSold(rs.getLong(4))
+                            .averageOrderValue(delivered > 0
+                                    ? revenue.divide(BigDecimal.valueOf(delivered), 2, RoundingMode.HALF_UP)
+                                    : BigDecimal.ZERO)
+                            .build();
+                },
+                Date.valueOf(from), Date.valueOf(to));
+    }
+
+    public List<ReportDTO.SalesBucket> getDailySales(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        return jdbcTemplate.query(
+                "SELECT bucket_date, delivered_orders, cancelled_orders, revenue, items_sold " +
+                "FROM sales_daily WHERE bucket_date BETWEEN ? AND ? ORDER BY bucket_date",
+                (rs, rowNum) -> ReportDTO.SalesBucket.builder()
+                        .bucketStart(rs.getDate(1).toLocalDate().atStartOfDay())
+                        .deliveredOrders(rs.getLong(2))
+                        .cancelledOrders(rs.getLong(3))
+                        .revenue(rs.getBigDecimal(4))
+                        .itemsSold(rs.getLong(5))
+                        .build(),
+                Date.valueOf(from), Date.valueOf(to));
+    }
+
+    public List<ReportDTO.SalesBucket> getHourlySales(LocalDate date) {
+        return jdbcTemplate.query(
+                "SELECT bucket_start, delivered_orders, cancelled_orders, revenue, items_sold " +
+                "FROM sales_hourly WHERE bucket_start >= ? AND bucket_start < ? ORDER BY bucket_start",
+                (rs, rowNum) -> ReportDTO.SalesBucket.builder()
+                        .bucketStart(rs.getTimestamp(1).toLocalDateTime())
+                        .deliveredOrders(rs.getLong(2))
+                        .cancelledOrders(rs.getLong(3))
+                        .revenue(rs.getBigDecimal(4))
+                        .itemsSold(rs.getLong(5))
+                        .build(),
+                Timestamp.valueOf(date.atStartOfDay()), Timestamp.valueOf(date.plusDays(1).atStartOfDay()));
+    }
+
+    public List<ReportDTO.ProductSales> getTopProducts(LocalDate from, LocalDate to, int limit) {
+        validateRange(from, to);
+        return jdbcTemplate.query(
+                "SELECT s.product_id, p.name, SUM(s.quantity) AS quantity, SUM(s.revenue) AS revenue " +
+                "FROM product_sales_daily s JOIN products p ON p.id = s.product_id " +
+                "WHERE s.bucket_date BETWEEN ? AND ? " +
+                "GROUP BY s.product_id, p.name ORDER BY revenue DESC LIMIT ?",
+                (rs, rowNum) -> ReportDTO.ProductSales.builder()
+                        .productId(rs.getLong(1))
+                        .productName(rs.getString(2))
+                        .quantity(rs.getLong(3))
+                        .revenue(rs.getBigDecimal(4))
+                        .build(),
+                Date.valueOf(from), Date.valueOf(to), Math.min(Math.max(limit, 1), MAX_TOP_PRODUCTS));
+    }
+
+    public List<ReportDTO.CategorySales> getCategorySales(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        return jdbcTemplate.query(
+                "SELECT category, SUM(quantity) AS quantity, SUM(revenue) AS revenue " +
+                "FROM category_sales_daily WHERE bucket_date BETWEEN ? AND ? " +
+                "GROUP BY category ORDER BY revenue DESC",
+                (rs, rowNum) -> ReportDTO.CategorySales.builder()
+                        .category(rs.getString(1))
+                        .quantity(rs.getLong(2))
+                        .revenue(rs.getBigDecimal(3))
+                        .build(),
+                Date.valueOf(from), Date.valueOf(to));
+    }
+
+    /**
+     * Delivered quantity per hour and modifier for a day, optionally for one modifier.
+     */
+    public List<ReportDTO.ModifierDemand> getHourlyModifierDemand(LocalDate date, Integer modifierId) {
+        return jdbcTemplate.query(
+                "SELECT s.bucket_start, s.modifier_id, m.code, m.name, s.quantity " +
+                "FROM modifier_sales_hourly s JOIN modifiers m ON m.id = s.modifier_id " +
+                "WHERE s.bucket_start >= ? AND s.bucket_start < ? " +
+                "AND (CAST(? AS SMALLINT) IS NULL OR s.modifier_id = ?) " +
+                "ORDER BY s.bucket_start, s.modifier_id",
+                (rs, rowNum) -> ReportDTO.ModifierDemand.builder()
+                        .bucketStart(rs.getTimestamp(1).toLocalDateTime())
+                        .modifierId(rs.getInt(2))
+                        .modifierCode(rs.getString(3))
+                        .modifierName(rs.getString(4))
+                        .quantity(rs.getLong(5))
+                        .build(),
+                Timestamp.valueOf(date.atStartOfDay()), Timestamp.valueOf(date.plusDays(1).atStartOfDay()),
+                modifierId, modifierId);
+    }
+
+    private void validateRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new BadRequestException("'from' must not be after 'to'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new BadRequestException("Date range must not exceed " + MAX_RANGE_DAYS + " days");
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.coffeeshop.service;
+
+import com.coffeeshop.exception.ConflictException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Array;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Maintains the sales rollup tables (hourly, daily, per product, per category,
+ * hourly per modifier).
+ * Orders reaching DELIVERED or CANCELLED are claimed in {@code sales_rollup_orders}
+ * within the status change, then folded into the rollups with set-based upserts by
+ * a scheduled drain, so rollups lag by up to one drain interval. A backfill job
+ * rolls up history day by day. The claim guarantees every order is counted once.
+ */
+@Service
+@Slf4j
+public class SalesRollupService {
+
+    private static final String CLAIM_ORDER_SQL =
+            "INSERT INTO sales_rollup_orders (order_id) " +
+            "SELECT id FROM orders WHERE id = ? AND status IN ('DELIVERED', 'CANCELLED') " +
+            "ON CONFLICT DO NOTHING RETURNING order_id";
+
+    private static final String CLAIM_ORDERS_SQL =
+            "INSERT INTO sales_rollup_orders (order_id) " +
+            "SELECT id FROM orders WHERE id = ANY(?) AND status IN ('DELIVERED', 'CANCELLED') " +
+            "ON CONFLICT DO NOTHING RETURNING order_id";
+
+    // Backfill rolls up in the same transaction, so its claims are never pending
+    private static final String CLAIM_RANGE_SQL =
+            "INSERT INTO sales_rollup_orders (order_id, rolled_up_at) " +
+            "SELECT id, CURRENT_TIMESTAMP FROM orders WHERE status IN ('DELIVERED', 'CANCELLED') " +
+            "AND order_date >= ? AND order_date < ? " +
+            "ON CONFLICT DO NOTHING RETURNING order_id";
+
+    private static final String NEXT_PENDING_SQL =
+            "SELECT order_id FROM sales_rollup_orders WHERE rolled_up_at IS NULL " +
+            "ORDER BY order_id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String MARK_ROLLED_UP_SQL =
+            "UPDATE sales_rollup_orders SET rolled_up_at = CURRENT_TIMESTAMP WHERE order_id = ANY(?)";
+
+    // Per-order item totals, shared by the order-level rollups
+    private static final String ORDER_TOTALS =
+            "WITH totals AS (" +
+            "SELECT o.id, o.order_date, o.status, o.total_amount, " +
+            "COALESCE((SELECT SUM(i.quantity) FROM order_items i WHERE i.order_id = o.id), 0) AS items " +
+            "FROM orders o WHERE o.id = ANY(?)) ";
+
+    private static final String HOURLY_SQL = ORDER_TOTALS +
+            "INSERT INTO sales_hourly (bucket_start, delivered_orders, cancelled_orders, revenue, items_sold) " +
+            "SELECT date_trunc('hour', order_date), " +
+            "COUNT(*) FILTER (WHERE status = 'DELIVERED'), COUNT(*) FILTER (WHERE status = 'CANCELLED'), " +
+            "COALESCE(SUM(total_amount) FILTER (WHERE status = 'DELIVERED'), 0), " +
+            "COALESCE(SUM(items) FILTER (WHERE status = 'DELIVERED'), 0) " +
+            "FROM totals GROUP BY 1 " +
+            "ON CONFLICT (bucket_start) DO UPDATE SET " +
+            "delivered_orders = sales_hourly.delivered_orders + EXCLUDED.delivered_orders, " +
+            "cancelled_orders = sales_hourly.cancelled_orders + EXCLUDED.cancelled_orders, " +
+            "revenue = sales_hourly.revenue + EXCLUDED.revenue, " +
+            "items_sold = sales_hourly.items_sold + EXCLUDED.items_sold";
+
+    private static final String DAILY_SQL = ORDER_TOTALS +
+            "INSERT INTO sales_daily (bucket_date, delivered_orders, cancelled_orders, revenue, items_sold) " +
+            "SELECT CAST(order_date AS DATE), " +
+            "COUNT(*) FILTER (WHERE status = 'DELIVERED'), COUNT(*) FILTER (WHERE status = 'CANCELLED'), " +
+            "COALESCE(SUM(total_amount) FILTER (WHERE status = 'DELIVERED'), 0), " +
+            "COALESCE(SUM(items) FILTER (WHERE status = 'DELIVERED'), 0) " +
+            "FROM totals GROUP BY 1 " +
+            "ON CONFLICT (bucket_date) DO UPDATE SET " +
+            "delivered_orders = sales_daily.delivered_orders + EXCLUDED.delivered_orders, " +
+            "cancelled_orders = sales_daily.cancelled_orders + EXCLUDED.cancelled_orders, " +
+            "revenue = sales_daily.revenue + EXCLUDED.revenue, " +
+            "items_sold = sales_daily.items_sold + EXCLUDED.items_sold";
+
+    private static final String PRODUCT_SQL =
+            "INSERT INTO product_sales_daily (bucket_date, product_id, quantity, revenue) " +
+            "SELECT CAST(o.order_date AS DATE), i.product_id, SUM(i.quantity), SUM(i.price * i.quantity) " +
+            "FROM orders o JOIN order_items i ON i.order_id = o.id " +
+            "WHERE o.id = ANY(?) AND o.status = 'DELIVERED' " +
+            "GROUP BY 1, 2 " +
+            "ON CONFLICT (bucket_date, product_id) DO UPDATE SET " +
+            "quantity = product_sales_daily.quantity + EXCLUDED.quantity, " +
+            "revenue = product_sales_daily.revenue + EXCLUDED.revenue";
+
+    private static final String CATEGORY_SQL =
+            "INSERT INTO category_sales_daily (bucket_date, category, quantity, revenue) " +
+            "SELECT CAST(o.order_date AS DATE), p.category, SUM(i.quantity), SUM(i.price * i.quantity) " +
+            "FROM orders o JOIN order_items i ON i.order_id = o.id JOIN products p ON p.id = i.product_id " +
+            "WHERE o.id = ANY(?) AND o.status = 'DELIVERED' " +
+            "GROUP BY 1, 2 " +
+            "ON CONFLICT (bucket_date, category) DO UPDATE SET " +
+            "quantity = category_sales_daily.quantity + EXCLUDED.quantity, " +
+            "revenue = category_sales_daily.revenue + EXCLUDED.revenue";
+
+    private static final String MODIFIER_SQL =
+            "INSERT INTO modifier_sales_hourly (bucket_start, modifier_id, quantity) " +
+            "SELECT date_trunc('hour', o.order_date), m.modifier_id, SUM(i.quantity) " +
+            "FROM orders o JOIN order_items i ON i.order_id = o.id " +
+            "CROSS JOIN LATERAL unnest(i.modifier_ids) AS m(modifier_id) " +
+            "WHERE o.id = ANY(?) AND o.status = 'DELIVERED' " +
+            "GROUP BY 1, 2 " +
+            "ON CONFLICT (bucket_start, modifier_id) DO UPDATE SET " +
+            "quantity = modifier_sales_hourly.quantity + EXCLUDED.quantity";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService backfillExecutor = Executors.newSingleThreadExecutor(
+            runnable -> new Thread(runnable, "sales-rollup-backfill"));
+    private final AtomicBoolean backfillRunning = new AtomicBoolean();
+    private final int drainBatchSize;
+
+    public SalesRollupService(JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${sales.rollup.drain-batch-size:500}") int drainBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.drainBatchSize = drainBatchSize;
+    }
+
+    /**
+     * Queue an order that just reached a terminal status for rollup. Runs in the
+     * caller's transaction, so the claim commits or rolls back with the status change;
+     * only the order's own claim row is written there.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTerminalOrder(Long orderId) {
+        jdbcTemplate.queryForList(CLAIM_ORDER_SQL, Long.class, orderId);
+    }
+
+    /**
+     * Same as {@link #recordTerminalOrder} for several orders, with one claim statement.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTerminalOrders(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.query(CLAIM_ORDERS_SQL,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", orderIds.toArray())),
+                (rs, rowNum) -> rs.getLong(1));
+    }
+
+    /**
+     * Fold claimed orders into the rollups, one batch per transaction. Claims are
+     * locked with SKIP LOCKED, so several instances can drain side by side.
+     */
+    @Scheduled(fixedDelayString = "${sales.rollup.drain-interval-ms:5000}")
+    public void drainPending() {
+        long total = 0;
+        int drained;
+        do {
+            Integer count = transactionTemplate.execute(status -> {
+                List<Long> pending = jdbcTemplate.queryForList(NEXT_PENDING_SQL, Long.class, drainBatchSize);
+                rollUp(pending);
+                updateWithIds(MARK_ROLLED_UP_SQL, pending);
+                return pending.size();
+            });
+            drained = count != null ? count : 0;
+            total += drained;
+        } while (drained == drainBatchSize);
+
+        if (total > 0) {
+            log.debug("Rolled up {} terminal orders", total);
+        }
+    }
+
+    /**
+     * Roll up all terminal orders dated in [from, to] in the background, one
+     * transaction per day. Orders already rolled up are skipped.
+     */
+    public void startBackfill(LocalDate from, LocalDate to) {
+        if (!backfillRunning.compareAndSet(false, true)) {
+            throw new ConflictException("A sales rollup backfill is already running");
+        }
+        backfillExecutor.execute(() -> {
+            try {
+                backfill(from, to);
+            } catch (RuntimeException e) {
+                log.error("Sales rollup backfill failed", e);
+            } finally {
+                backfillRunning.set(false);
+            }
+        });
+    }
+
+    private void backfill(LocalDate from, LocalDate to) {
+        log.info("Backfilling sales rollups from {} to {}", from, to);
+        long total = 0;
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            LocalDate start = day;
+            Integer count = transactionTemplate.execute(status -> {
+                List<Long> claimed = jdbcTemplate.queryForList(CLAIM_RANGE_SQL, Long.class,
+                        Timestamp.valueOf(start.atStartOfDay()),
+                        Timestamp.valueOf(start.plusDays(1).atStartOfDay()));
+                rollUp(claimed);
+                return claimed.size();
+            });
+            total += count != null ? count : 0;
+        }
+        log.info("Sales rollup backfill finished: {} orders rolled up", total);
+    }
+
+    private void rollUp(List<Long> orderIds) {
+        for (String sql : List.of(HOURLY_SQL, DAILY_SQL, PRODUCT_SQL, CATEGORY_SQL, MODIFIER_SQL)) {
+            updateWithIds(sql, orderIds);
+        }
+    }
+
+    private void updateWithIds(String sql, List<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(sql, ps -> {
+            Array ids = ps.getConnection().createArrayOf("bigint", orderIds.toArray());
+            ps.setArray(1, ids);
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        backfillExecutor.shutdownNow();
+    }
+}
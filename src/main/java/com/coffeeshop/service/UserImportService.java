@@ -0,0 +1,129 @@
+package com.coffeeshop.service;
+
+import com.coffeeshop.dto.UserDTO;
+import com.coffeeshop.enums.UserRole;
+import com.coffeeshop.security.BoundedPasswordEncoder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Service for bulk importing users, e.g. loyalty-card customer migrations.
+ * Passwords are hashed in parallel and users are written in JDBC batches,
+ * one transaction per batch. Rows that clash with an existing email or
+ * phone number are skipped.
+ */
+@Service
+@Slf4j
+public class UserImportService {
+
+    private static final String INSERT_USER_SQL =
+            "INSERT INTO users (full_name, email, password, phone_number, address, role, " +
+            "enabled, account_non_expired, account_non_locked, credentials_non_expired, " +
+            "created_at, updated_at, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, TRUE, TRUE, TRUE, TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0) " +
+            "ON CONFLICT DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder hashingEncoder;
+    private final ForkJoinPool hashingPool;
+
+    @Value("${users.import.batch-size:500}")
+    private int batchSize;
+
+    public UserImportService(JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             PasswordEncoder passwordEncoder,
+                             @Value("${users.import.hashing-parallelism:2}") int hashingParallelism) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Bypass the request-path admission limits; parallelism is bounded by our own pool
+        this.hashingEncoder = passwordEncoder instanceof BoundedPasswordEncoder bounded
+                ? bounded.getDelegate()
+                : passwordEncoder;
+        this.hashingPool = new ForkJoinPool(hashingParallelism);
+    }
+
+    /**
+     * Import users in batches.
+     */
+    public UserDTO.BulkImportResponse importUsers(List<UserDTO.ImportUserRequest> users) {
+        log.info("Importing {} users", users.size());
+
+        int imported = 0;
+        List<String> skippedEmails = new ArrayList<>();
+
+        for (int from = 0; from < users.size(); from += batchSize) {
+            List<UserDTO.ImportUserRequest> batch = users.subList(from, Math.min(from + batchSize, users.size()));
+            List<String> hashes = hashPasswords(batch);
+
+            int[] counts = transactionTemplate.execute(status -> insertBatch(batch, hashes));
+
+            for (int i = 0; i < batch.size(); i++) {
+                if (counts != null && counts[i] == 0) {
+                    skippedEmails.add(batch.get(i).getEmail());
+                } else {
+                    imported++;
+                }
+            }
+            log.debug("Imported batch {}-{}", from, from + batch.size());
+        }
+
+        log.info("User import finished: {} imported, {} skipped", imported, skippedEmails.size());
+
+        return UserDTO.BulkImportResponse.builder()
+                .requested(users.size())
+                .imported(imported)
+                .skipped(skippedEmails.size())
+                .skippedEmails(skippedEmails)
+                .build();
+    }
+
+    /**
+     * Hash a batch of passwords in parallel, preserving order.
+     */
+    private List<String> hashPasswords(List<UserDTO.ImportUserRequest> batch) {
+        try {
+            return hashingPool.submit(() -> batch.parallelStream()
+                    .map(user -> hashingEncoder.encode(user.getPassword()))
+                    .toList()).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing passwords", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private int[] insertBatch(List<UserDTO.ImportUserRequest> batch, List<String> hashes) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            UserDTO.ImportUserRequest user = batch.get(i);
+            rows.add(new Object[]{
+                    user.getFullName(),
+                    user.getEmail(),
+                    hashes.get(i),
+                    user.getPhoneNumber(),
+                    user.getAddress(),
+                    UserRole.CUSTOMER.name()
+            });
+        }
+        return jdbcTemplate.batchUpdate(INSERT_USER_SQL, rows);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        hashingPool.shutdown();
+    }
+}
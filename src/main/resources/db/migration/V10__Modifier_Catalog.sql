@@ -0,0 +1,67 @@
+-- Structured drink modifiers (milk, syrups, shots, temperature) with price deltas.
+-- Ids are small and stable: the application loads the catalog into arrays indexed by id,
+-- and order items store their selections as a SMALLINT[] of modifier ids.
+
+CREATE TABLE modifier_groups (
+    id SMALLINT PRIMARY KEY CHECK (id BETWEEN 0 AND 63),
+    code VARCHAR(30) NOT NULL UNIQUE,
+    name VARCHAR(100) NOT NULL,
+    max_selections SMALLINT NOT NULL DEFAULT 1 CHECK (max_selections > 0),
+    sort_order SMALLINT NOT NULL DEFAULT 0
+);
+
+CREATE TABLE modifiers (
+    id SMALLINT PRIMARY KEY CHECK (id >= 0),
+    group_id SMALLINT NOT NULL REFERENCES modifier_groups(id),
+    code VARCHAR(30) NOT NULL UNIQUE,
+    name VARCHAR(100) NOT NULL,
+    price_delta_cents INTEGER NOT NULL DEFAULT 0,
+    available BOOLEAN NOT NULL DEFAULT TRUE,
+    sort_order SMALLINT NOT NULL DEFAULT 0
+);
+
+-- Which modifier groups a product offers
+CREATE TABLE product_modifier_groups (
+    product_id BIGINT NOT NULL REFERENCES products(id) ON DELETE CASCADE,
+    group_id SMALLINT NOT NULL REFERENCES modifier_groups(id),
+    PRIMARY KEY (product_id, group_id)
+);
+
+ALTER TABLE order_items ADD COLUMN modifier_ids SMALLINT[];
+ALTER TABLE order_items_archive ADD COLUMN modifier_ids SMALLINT[];
+
+-- Delivered modifier quantities per hour, maintained with the other sales rollups
+CREATE TABLE modifier_sales_hourly (
+    bucket_start TIMESTAMP NOT NULL,
+    modifier_id SMALLINT NOT NULL REFERENCES modifiers(id),
+    quantity BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (bucket_start, modifier_id)
+);
+
+INSERT INTO modifier_groups (id, code, name, max_selections, sort_order) VALUES
+(1, 'MILK', 'Milk', 1, 1),
+(2, 'SYRUP', 'Syrups', 3, 2),
+(3, 'SHOTS', 'Espresso Shots', 1, 3),
+(4, 'TEMPERATURE', 'Temperature', 1, 4);
+
+INSERT INTO modifiers (id, group_id, code, name, price_delta_cents, sort_order) VALUES
+(1, 1, 'WHOLE_MILK', 'Whole Milk', 0, 1),
+(2, 1, 'SKIM_MILK', 'Skim Milk', 0, 2),
+(3, 1, 'OAT_MILK', 'Oat Milk', 70, 3),
+(4, 1, 'ALMOND_MILK', 'Almond Milk', 70, 4),
+(5, 1, 'SOY_MILK', 'Soy Milk', 60, 5),
+(10, 2, 'VANILLA_SYRUP', 'Vanilla Syrup', 50, 1),
+(11, 2, 'CARAMEL_SYRUP', 'Caramel Syrup', 50, 2),
+(12, 2, 'HAZELNUT_SYRUP', 'Hazelnut Syrup', 50, 3),
+(13, 2, 'SUGAR_FREE_VANILLA', 'Sugar-Free Vanilla Syrup', 50, 4),
+(20, 3, 'EXTRA_SHOT', 'Extra Shot', 90, 1),
+(21, 3, 'DOUBLE_EXTRA_SHOT', 'Two Extra Shots', 170, 2),
+(30, 4, 'EXTRA_HOT', 'Extra Hot', 0, 1),
+(31, 4, 'WARM', 'Warm', 0, 2);
+
+INSERT INTO product_modifier_groups (product_id, group_id)
+SELECT p.id, g.id FROM products p JOIN modifier_groups g ON
+    (g.code = 'MILK' AND p.category IN ('HOT_COFFEE', 'ICED_COFFEE', 'LATTE', 'CAPPUCCINO', 'MACCHIATO', 'MOCHA', 'FRAPPUCCINO', 'TEA'))
+    OR (g.code = 'SYRUP' AND p.category IN ('HOT_COFFEE', 'ICED_COFFEE', 'LATTE', 'CAPPUCCINO', 'MACCHIATO', 'MOCHA', 'FRAPPUCCINO', 'TEA'))
+    OR (g.code = 'SHOTS' AND p.category IN ('HOT_COFFEE', 'ICED_COFFEE', 'ESPRESSO', 'LATTE', 'CAPPUCCINO', 'MACCHIATO', 'MOCHA', 'FRAPPUCCINO'))
+    OR (g.code = 'TEMPERATURE' AND p.category IN ('HOT_COFFEE', 'ESPRESSO', 'LATTE', 'CAPPUCCINO', 'MACCHIATO', 'MOCHA', 'TEA'));
@@ -0,0 +1,31 @@
+-- V11__Token_Version_Change_Xid.sql
+-- Tracks revocation-relevant user changes by transaction id, so TokenVersionRegistry
+-- can refresh incrementally without missing changes from long-running transactions
+-- (updated_at is the transaction start time and says nothing about commit order).
+
+ALTER TABLE users ADD COLUMN token_change_xid XID8 NOT NULL DEFAULT pg_current_xact_id();
+
+CREATE INDEX idx_users_token_change_xid ON users(token_change_xid);
+
+-- A role change revokes tokens carrying the old role. The token version never
+-- goes down, even if a stale entity writes back an older value.
+CREATE OR REPLACE FUNCTION track_token_version_change()
+RETURNS TRIGGER AS $$
+BEGIN
+    NEW.token_version = GREATEST(NEW.token_version, OLD.token_version);
+    IF NEW.role IS DISTINCT FROM OLD.role AND NEW.token_version = OLD.token_version THEN
+        NEW.token_version = OLD.token_version + 1;
+    END IF;
+    IF NEW.token_version IS DISTINCT FROM OLD.token_version
+            OR NEW.role IS DISTINCT FROM OLD.role
+            OR NEW.enabled IS DISTINCT FROM OLD.enabled
+            OR NEW.account_non_locked IS DISTINCT FROM OLD.account_non_locked
+            OR NEW.account_non_expired IS DISTINCT FROM OLD.account_non_expired THEN
+        NEW.token_change_xid = pg_current_xact_id();
+    END IF;
+    RETURN NEW;
+END;
+$$ language 'plpgsql';
+
+CREATE TRIGGER track_users_token_version BEFORE UPDATE ON users
+    FOR EACH ROW EXECUTE FUNCTION track_token_version_change();
@@ -0,0 +1,9 @@
+-- V12__Sales_Rollup_Queue.sql
+-- Terminal orders are claimed in the status-change transaction but folded into the
+-- rollup tables by a background drain, so DELIVERED transitions no longer queue on
+-- the hot hourly/daily rollup rows. A NULL rolled_up_at marks a claim not yet rolled up.
+
+ALTER TABLE sales_rollup_orders ALTER COLUMN rolled_up_at DROP DEFAULT;
+ALTER TABLE sales_rollup_orders ALTER COLUMN rolled_up_at DROP NOT NULL;
+
+CREATE INDEX idx_sales_rollup_orders_pending ON sales_rollup_orders(order_id) WHERE rolled_up_at IS NULL;
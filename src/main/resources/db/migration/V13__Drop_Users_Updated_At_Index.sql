@@ -0,0 +1,5 @@
+-- V13__Drop_Users_Updated_At_Index.sql
+-- Token versions are refreshed by token_change_xid since V11; nothing filters
+-- users by updated_at any more, so the V3 index only slows down writes.
+
+DROP INDEX IF EXISTS idx_users_updated_at;
@@ -0,0 +1,7 @@
+-- V3__User_Token_Version.sql
+-- Per-user token version for claims-only authentication and revocation
+
+ALTER TABLE users ADD COLUMN token_version BIGINT NOT NULL DEFAULT 0;
+
+-- Supports incremental refresh of token versions by last update time
+CREATE INDEX idx_users_updated_at ON users(updated_at);
@@ -0,0 +1,41 @@
+-- V4__Pooled_Id_Sequences.sql
+-- Replace identity columns with pooled sequences so Hibernate can batch inserts.
+-- Entities name these sequences explicitly (entity.IdSequences) and the increment
+-- matches their allocation size of 50. Each sequence is
+-- positioned past the current maximum id so no pooled block overlaps existing rows.
+
+CREATE SEQUENCE user_seq INCREMENT BY 50;
+SELECT setval('user_seq', (SELECT COALESCE(MAX(id), 0) FROM users) + 50);
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('user_seq');
+ALTER SEQUENCE user_seq OWNED BY users.id;
+DROP SEQUENCE users_id_seq;
+
+CREATE SEQUENCE product_seq INCREMENT BY 50;
+SELECT setval('product_seq', (SELECT COALESCE(MAX(id), 0) FROM products) + 50);
+ALTER TABLE products ALTER COLUMN id SET DEFAULT nextval('product_seq');
+ALTER SEQUENCE product_seq OWNED BY products.id;
+DROP SEQUENCE products_id_seq;
+
+CREATE SEQUENCE address_seq INCREMENT BY 50;
+SELECT setval('address_seq', (SELECT COALESCE(MAX(id), 0) FROM addresses) + 50);
+ALTER TABLE addresses ALTER COLUMN id SET DEFAULT nextval('address_seq');
+ALTER SEQUENCE address_seq OWNED BY addresses.id;
+DROP SEQUENCE addresses_id_seq;
+
+CREATE SEQUENCE order_seq INCREMENT BY 50;
+SELECT setval('order_seq', (SELECT COALESCE(MAX(id), 0) FROM orders) + 50);
+ALTER TABLE orders ALTER COLUMN id SET DEFAULT nextval('order_seq');
+ALTER SEQUENCE order_seq OWNED BY orders.id;
+DROP SEQUENCE orders_id_seq;
+
+CREATE SEQUENCE orderitem_seq INCREMENT BY 50;
+SELECT setval('orderitem_seq', (SELECT COALESCE(MAX(id), 0) FROM order_items) + 50);
+ALTER TABLE order_items ALTER COLUMN id SET DEFAULT nextval('orderitem_seq');
+ALTER SEQUENCE orderitem_seq OWNED BY order_items.id;
+DROP SEQUENCE order_items_id_seq;
+
+CREATE SEQUENCE review_seq INCREMENT BY 50;
+SELECT setval('review_seq', (SELECT COALESCE(MAX(id), 0) FROM reviews) + 50);
+ALTER TABLE reviews ALTER COLUMN id SET DEFAULT nextval('review_seq');
+ALTER SEQUENCE review_seq OWNED BY reviews.id;
+DROP SEQUENCE reviews_id_seq;
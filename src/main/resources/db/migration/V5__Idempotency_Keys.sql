@@ -0,0 +1,17 @@
+-- V5__Idempotency_Keys.sql
+-- Stored results of idempotent requests (Idempotency-Key header), scoped per user
+
+CREATE TABLE idempotency_keys (
+    user_id BIGINT NOT NULL,
+    idempotency_key VARCHAR(100) NOT NULL,
+    request_hash VARCHAR(64) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    response_body TEXT,
+    locked_until TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (user_id, idempotency_key)
+);
+
+-- Supports expiry cleanup
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys(expires_at);
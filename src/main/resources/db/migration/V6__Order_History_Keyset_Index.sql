@@ -0,0 +1,4 @@
+-- V6__Order_History_Keyset_Index.sql
+-- Serves keyset pagination of a user's order history, newest first, without a sort
+
+CREATE INDEX idx_orders_user_date_id ON orders(user_id, order_date DESC, id DESC);
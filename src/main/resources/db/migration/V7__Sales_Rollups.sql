@@ -0,0 +1,44 @@
+-- V7__Sales_Rollups.sql
+-- Sales rollups maintained incrementally when orders reach DELIVERED or CANCELLED.
+-- Buckets are by order date. Revenue and quantities count delivered orders only.
+
+CREATE TABLE sales_hourly (
+    bucket_start TIMESTAMP PRIMARY KEY,
+    delivered_orders BIGINT NOT NULL DEFAULT 0,
+    cancelled_orders BIGINT NOT NULL DEFAULT 0,
+    revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    items_sold BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE TABLE sales_daily (
+    bucket_date DATE PRIMARY KEY,
+    delivered_orders BIGINT NOT NULL DEFAULT 0,
+    cancelled_orders BIGINT NOT NULL DEFAULT 0,
+    revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    items_sold BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE TABLE product_sales_daily (
+    bucket_date DATE NOT NULL,
+    product_id BIGINT NOT NULL REFERENCES products(id),
+    quantity BIGINT NOT NULL DEFAULT 0,
+    revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (bucket_date, product_id)
+);
+
+CREATE TABLE category_sales_daily (
+    bucket_date DATE NOT NULL,
+    category VARCHAR(50) NOT NULL,
+    quantity BIGINT NOT NULL DEFAULT 0,
+    revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (bucket_date, category)
+);
+
+-- Orders already counted, so live updates and backfill never count an order twice
+CREATE TABLE sales_rollup_orders (
+    order_id BIGINT PRIMARY KEY,
+    rolled_up_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Supports backfill by date range
+CREATE INDEX idx_orders_status_order_date ON orders(status, order_date);
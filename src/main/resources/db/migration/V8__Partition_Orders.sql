@@ -0,0 +1,121 @@
+-- V8__Partition_Orders.sql
+-- Range-partition orders by month on order_date, plus an archive partition set.
+-- Partitioned tables need the partition key in every unique constraint, so the
+-- primary key becomes (id, order_date) and order_items can no longer reference
+-- orders with a foreign key; the application owns that relationship.
+
+ALTER TABLE order_items DROP CONSTRAINT order_items_order_id_fkey;
+
+-- Move the old table out of the way, freeing its constraint and index names
+ALTER SEQUENCE order_seq OWNED BY NONE;
+ALTER TABLE orders RENAME TO orders_legacy;
+ALTER TABLE orders_legacy RENAME CONSTRAINT orders_pkey TO orders_legacy_pkey;
+ALTER TABLE orders_legacy RENAME CONSTRAINT orders_order_number_key TO orders_legacy_order_number_key;
+DROP INDEX idx_orders_user_id;
+DROP INDEX idx_orders_status;
+DROP INDEX idx_orders_order_date;
+DROP INDEX idx_orders_user_date_id;
+DROP INDEX idx_orders_status_order_date;
+
+CREATE TABLE orders (
+    id BIGINT NOT NULL DEFAULT nextval('order_seq'),
+    user_id BIGINT NOT NULL REFERENCES users(id),
+    order_number VARCHAR(50) NOT NULL,
+    order_date TIMESTAMP NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    subtotal DECIMAL(10, 2) NOT NULL,
+    tax DECIMAL(10, 2) NOT NULL DEFAULT 0,
+    delivery_fee DECIMAL(10, 2) NOT NULL DEFAULT 0,
+    total_amount DECIMAL(10, 2) NOT NULL,
+    payment_method VARCHAR(20),
+    payment_id VARCHAR(100),
+    is_paid BOOLEAN NOT NULL DEFAULT FALSE,
+    delivery_address_id BIGINT REFERENCES addresses(id),
+    special_instructions TEXT,
+    estimated_delivery_time TIMESTAMP,
+    actual_delivery_time TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    version BIGINT DEFAULT 0,
+    PRIMARY KEY (id, order_date)
+) PARTITION BY RANGE (order_date);
+
+-- The dropped legacy table took its trigger with it
+CREATE TRIGGER update_orders_updated_at BEFORE UPDATE ON orders
+    FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
+
+-- A unique constraint on orders would have to include order_date, so global order
+-- number uniqueness is enforced here instead, by every insert into orders.
+-- Numbers stay reserved after their order is archived.
+CREATE TABLE order_numbers (
+    order_number VARCHAR(50) PRIMARY KEY,
+    order_id BIGINT NOT NULL
+);
+
+CREATE OR REPLACE FUNCTION reserve_order_number()
+RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO order_numbers (order_number, order_id) VALUES (NEW.order_number, NEW.id);
+    RETURN NEW;
+END;
+$$ language 'plpgsql';
+
+CREATE TRIGGER reserve_orders_order_number AFTER INSERT ON orders
+    FOR EACH ROW EXECUTE FUNCTION reserve_order_number();
+
+-- order_number is never updated; reject it outright rather than desynchronize order_numbers
+CREATE OR REPLACE FUNCTION prevent_order_number_change()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF NEW.order_number IS DISTINCT FROM OLD.order_number THEN
+        RAISE EXCEPTION 'order_number of order % cannot change', OLD.id;
+    END IF;
+    RETURN NEW;
+END;
+$$ language 'plpgsql';
+
+CREATE TRIGGER prevent_orders_order_number_change BEFORE UPDATE OF order_number ON orders
+    FOR EACH ROW EXECUTE FUNCTION prevent_order_number_change();
+
+-- Safety net for rows outside the maintained range. OrderPartitionMaintainer moves
+-- stray rows into a month's partition when it creates it, and reports what is left.
+CREATE TABLE orders_default PARTITION OF orders DEFAULT;
+
+-- Monthly partitions covering existing data through three months ahead
+DO $$
+DECLARE
+    month_start TIMESTAMP := date_trunc('month', COALESCE((SELECT MIN(order_date) FROM orders_legacy), CURRENT_TIMESTAMP));
+    last_month TIMESTAMP := date_trunc('month', CURRENT_TIMESTAMP) + INTERVAL '3 months';
+BEGIN
+    WHILE month_start <= last_month LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF orders FOR VALUES FROM (%L) TO (%L)',
+                       'orders_p' || to_char(month_start, 'YYYYMM'),
+                       month_start, month_start + INTERVAL '1 month');
+        month_start := month_start + INTERVAL '1 month';
+    END LOOP;
+END $$;
+
+INSERT INTO orders (id, user_id, order_number, order_date, status, subtotal, tax, delivery_fee,
+                    total_amount, payment_method, payment_id, is_paid, delivery_address_id,
+                    special_instructions, estimated_delivery_time, actual_delivery_time,
+                    created_at, updated_at, version)
+SELECT id, user_id, order_number, order_date, status, subtotal, tax, delivery_fee,
+       total_amount, payment_method, payment_id, is_paid, delivery_address_id,
+       special_instructions, estimated_delivery_time, actual_delivery_time,
+       created_at, updated_at, version
+FROM orders_legacy;
+
+DROP TABLE orders_legacy;
+ALTER SEQUENCE order_seq OWNED BY orders.id;
+
+CREATE INDEX idx_orders_order_number ON orders(order_number);
+CREATE INDEX idx_orders_user_id ON orders(user_id);
+CREATE INDEX idx_orders_status ON orders(status);
+CREATE INDEX idx_orders_order_date ON orders(order_date);
+CREATE INDEX idx_orders_user_date_id ON orders(user_id, order_date DESC, id DESC);
+CREATE INDEX idx_orders_status_order_date ON orders(status, order_date);
+
+-- Cold storage: monthly partitions are detached from orders and attached here when archived
+CREATE TABLE orders_archive (LIKE orders) PARTITION BY RANGE (order_date);
+
+CREATE TABLE order_items_archive (LIKE order_items INCLUDING DEFAULTS INCLUDING INDEXES);
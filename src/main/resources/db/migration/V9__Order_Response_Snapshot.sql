@@ -0,0 +1,6 @@
+-- Rendered OrderResponse of an order in a terminal status (DELIVERED, CANCELLED, FAILED).
+-- Written once at the transition; such orders never change afterwards.
+-- Added to the archive as well so archived partitions keep matching its columns.
+
+ALTER TABLE orders ADD COLUMN response_snapshot JSONB;
+ALTER TABLE orders_archive ADD COLUMN response_snapshot JSONB;
@@ -0,0 +1,185 @@
+package com.coffeeshop.repository;
+
+import com.coffeeshop.entity.Address;
+import com.coffeeshop.entity.Order;
+import com.coffeeshop.entity.OrderItem;
+import com.coffeeshop.entity.Product;
+import com.coffeeshop.entity.User;
+import com.coffeeshop.enums.CoffeeSize;
+import com.coffeeshop.enums.OrderStatus;
+import com.coffeeshop.enums.ProductCategory;
+import com.coffeeshop.security.UserPrincipalCache;
+import com.coffeeshop.security.UserPrincipalEvictionListener;
+import com.coffeeshop.service.ModifierCatalog;
+import com.coffeeshop.service.PricingEngine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that order detail reads load the whole graph used by the order
+ * response (items, products, delivery address) in a single statement. Runs
+ * against the Flyway-migrated PostgreSQL schema, which Hibernate validates.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import({UserPrincipalCache.class, UserPrincipalEvictionListener.class, OrderRepositoryFetchTest.MetricsConfig.class})
+class OrderRepositoryFetchTest {
+
+    private static final int ORDERS = 3;
+    private static final int ITEMS_PER_ORDER = 4;
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User user;
+    private final PricingEngine pricing = new PricingEngine(
+            new ModifierCatalog(null), -50, 0, 50, 100, 299, "10", "");
+
+    private Order firstOrder;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        user = User.builder()
+                .fullName("Fetch Test")
+                .email("fetch-test@example.com")
+                .password("secret")
+                .build();
+        entityManager.persist(user);
+
+        Address address = Address.builder()
+                .user(user)
+                .label("Home")
+                .addressLine1("1 Test Street")
+                .city("Seattle")
+                .state("WA")
+                .zipCode("98101")
+                .country("US")
+                .build();
+        entityManager.persist(address);
+
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+            Product product = Product.builder()
+                    .name("Product " + i)
+                    .price(BigDecimal.valueOf(3 + i))
+                    .category(ProductCategory.values()[0])
+                    .build();
+            entityManager.persist(product);
+            products.add(product);
+        }
+
+        for (int o = 0; o < ORDERS; o++) {
+            Order order = Order.builder()
+                    .user(user)
+                    .orderNumber("ORD-FETCH-" + o)
+                    .orderDate(LocalDateTime.now().minusMinutes(o))
+                    .status(OrderStatus.PENDING)
+                    .deliveryAddress(address)
+                    .build();
+            for (Product product : products) {
+                order.addOrderItem(OrderItem.builder()
+                        .product(product)
+                        .quantity(1)
+                        .price(product.getPrice())
+                        .size(CoffeeSize.MEDIUM)
+                        .build());
+            }
+            pricing.price(order);
+            entityManager.persist(order);
+            if (firstOrder == null) {
+                firstOrder = order;
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findByIdLoadsDetailGraphInOneStatement() {
+        Order order = orderRepository.findById(firstOrder.getId()).orElseThrow();
+        touchDetailGraph(order);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findByOrderNumberLoadsDetailGraphInOneStatement() {
+        Order order = orderRepository.findByOrderNumber(firstOrder.getOrderNumber()).orElseThrow();
+        touchDetailGraph(order);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findActiveOrdersLoadsDetailGraphInOneStatement() {
+        List<Order> orders = orderRepository.findActiveOrdersByUserId(user.getId());
+        orders.forEach(this::touchDetailGraph);
+
+        assertThat(orders).hasSize(ORDERS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    /**
+     * Touch everything OrderService reads when building an order response.
+     */
+    private void touchDetailGraph(Order order) {
+        assertThat(order.getOrderItems()).hasSize(ITEMS_PER_ORDER);
+        for (OrderItem item : order.getOrderItems()) {
+            assertThat(item.getProduct().getName()).isNotNull();
+        }
+        assertThat(order.getDeliveryAddress().getCity()).isEqualTo("Seattle");
+        assertThat(order.getUser().getId()).isEqualTo(user.getId());
+    }
+
+    @TestConfiguration
+    static class MetricsConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
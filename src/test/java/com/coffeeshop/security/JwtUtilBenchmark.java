@@ -0,0 +1,87 @@
+package com.coffeeshop.security;
+
+import com.coffeeshop.entity.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares cold token parsing with cached claim verification in {@link JwtUtil}.
+ * Run with {@code main} from the test classpath.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private static final String SECRET = "mySecretKeyForJWTTokenGenerationThatIsAtLeast256BitsLongAndVerySecure";
+
+    private JwtUtil jwtUtil;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86400000L);
+        ReflectionTestUtils.setField(jwtUtil, "claimsCacheMaxSize", 10000);
+        jwtUtil.init();
+
+        user = User.builder().email("bench@coffeeshop.com").build();
+        token = jwtUtil.generateToken(user);
+    }
+
+    /**
+     * Previous behaviour: three full parses, each rebuilding the key and parser.
+     */
+    @Benchmark
+    public boolean legacyValidation() {
+        String username = legacyClaims().getSubject();
+        boolean matches = legacyClaims().getSubject().equals(user.getUsername())
+                && !legacyClaims().getExpiration().before(new Date());
+        return username != null && matches;
+    }
+
+    /**
+     * Single parse with the prebuilt parser, bypassing the cache.
+     */
+    @Benchmark
+    public boolean coldParse() {
+        return jwtUtil.isTokenValid(jwtUtil.parseClaims(token), user);
+    }
+
+    /**
+     * Single verification served from the claims cache.
+     */
+    @Benchmark
+    public boolean cachedVerification() {
+        return jwtUtil.isTokenValid(jwtUtil.verifyToken(token), user);
+    }
+
+    private Claims legacyClaims() {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtUtilBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
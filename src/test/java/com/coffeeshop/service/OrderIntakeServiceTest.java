@@ -0,0 +1,100 @@
+package com.coffeeshop.service;
+
+import com.coffeeshop.dto.OrderDTO;
+import com.coffeeshop.enums.OrderStatus;
+import com.coffeeshop.enums.PaymentMethod;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies that orders hit by transient write failures stay pending and are
+ * written on a later attempt instead of being dropped.
+ */
+class OrderIntakeServiceTest {
+
+    private final OrderService orderService = mock(OrderService.class);
+    private final OrderBatchWriter batchWriter = mock(OrderBatchWriter.class);
+    private final OrderIntakeJournal journal = mock(OrderIntakeJournal.class);
+    private final PendingOrderRegistry pendingOrders = new PendingOrderRegistry();
+
+    private OrderIntakeService intake;
+
+    @BeforeEach
+    void setUp() {
+        intake = new OrderIntakeService(orderService, batchWriter, journal, pendingOrders,
+                new SimpleMeterRegistry(), true, 100, 10, 1, 10);
+        intake.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        intake.stop();
+    }
+
+    @Test
+    void transientFailureKeepsOrderPendingAndWritesItLater() {
+        QueuedOrder order = queuedOrder(42L);
+        OrderDTO.CreateOrderRequest request = new OrderDTO.CreateOrderRequest();
+        when(orderService.prepareForIntake(1L, request)).thenReturn(order);
+
+        // Batch rejected, individual write times out, retry succeeds
+        doThrow(new DataIntegrityViolationException("duplicate in batch"))
+                .doThrow(new QueryTimeoutException("statement timeout"))
+                .doNothing()
+                .when(batchWriter).write(anyList());
+
+        intake.submit(1L, request);
+
+        // Would throw ResourceNotFoundException if the transient failure dropped the order
+        pendingOrders.awaitPersisted(order.id(), 5000);
+
+        verify(batchWriter, timeout(5000).times(3)).write(anyList());
+        verify(journal, timeout(5000)).remove(order.id());
+        verify(journal, never()).markFailed(any());
+        assertThat(pendingOrders.find(order.id())).isEmpty();
+    }
+
+    @Test
+    void permanentRejectionFailsOrder() {
+        QueuedOrder order = queuedOrder(43L);
+        OrderDTO.CreateOrderRequest request = new OrderDTO.CreateOrderRequest();
+        when(orderService.prepareForIntake(1L, request)).thenReturn(order);
+        doThrow(new DataIntegrityViolationException("bad order")).when(batchWriter).write(anyList());
+
+        intake.submit(1L, request);
+
+        verify(journal, timeout(5000)).markFailed(order.id());
+        verify(journal, never()).remove(order.id());
+        assertThat(pendingOrders.find(order.id())).isEmpty();
+    }
+
+    private static QueuedOrder queuedOrder(Long id) {
+        LocalDateTime now = LocalDateTime.now();
+        OrderDTO.OrderResponse response = OrderDTO.OrderResponse.builder()
+                .id(id)
+                .orderNumber("ORD-" + id)
+                .status(OrderStatus.PENDING)
+                .build();
+        return new QueuedOrder(id, 1L, "ORD-" + id, now, OrderStatus.PENDING,
+                new BigDecimal("4.50"), new BigDecimal("0.45"), new BigDecimal("2.00"), new BigDecimal("6.95"),
+                PaymentMethod.CASH, 7L, null, now.plusMinutes(30), List.of(), response);
+    }
+}
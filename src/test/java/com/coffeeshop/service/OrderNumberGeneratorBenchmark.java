@@ -0,0 +1,54 @@
+package com.coffeeshop.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link OrderNumberGenerator} with the previous random-UUID order
+ * numbers, uncontended and with many threads hitting one generator.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderNumberGeneratorBenchmark {
+
+    private final OrderNumberGenerator generator = new OrderNumberGenerator(1, System::currentTimeMillis);
+
+    @Benchmark
+    @Threads(1)
+    public String generatorSingleThread() {
+        return generator.next();
+    }
+
+    @Benchmark
+    @Threads(32)
+    public String generatorContended() {
+        return generator.next();
+    }
+
+    @Benchmark
+    @Threads(32)
+    public long generatorContendedRawId() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @Threads(32)
+    public String legacyUuidContended() {
+        return "ORD-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(OrderNumberGeneratorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,140 @@
+package com.coffeeshop.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Uniqueness, ordering and encoding of generated order numbers, including
+ * clock regressions within a run and across a restart.
+ */
+class OrderNumberGeneratorTest {
+
+    private static final long NOW = Instant.parse("2025-06-01T12:00:00Z").toEpochMilli();
+
+    @Test
+    void numbersAreUniqueAcrossThreads() throws Exception {
+        // A frozen clock forces sequence overflow into the timestamp under contention
+        OrderNumberGenerator generator = new OrderNumberGenerator(3, () -> NOW);
+        int threads = 8;
+        int perThread = 20_000;
+        Set<String> issued = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        issued.add(generator.next());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(issued).hasSize(threads * perThread);
+    }
+
+    @Test
+    void numbersIncreaseNumericallyAndLexicographically() {
+        AtomicLong clock = new AtomicLong(NOW);
+        OrderNumberGenerator generator = new OrderNumberGenerator(1, clock::get);
+
+        String previous = generator.next();
+        for (int i = 0; i < 10_000; i++) {
+            if (i % 100 == 0) {
+                clock.addAndGet(1);
+            }
+            String next = generator.next();
+            assertThat(next).isGreaterThan(previous);
+            assertThat(decode(next)).isGreaterThan(decode(previous));
+            previous = next;
+        }
+    }
+
+    @Test
+    void encodesCrockfordBase32AtFixedWidth() {
+        assertThat(OrderNumberGenerator.encode(0)).isEqualTo("0000000000000");
+        assertThat(OrderNumberGenerator.encode(31)).isEqualTo("000000000000Z");
+        assertThat(OrderNumberGenerator.encode(32)).isEqualTo("0000000000010");
+        assertThat(OrderNumberGenerator.encode(Long.MAX_VALUE)).isEqualTo("7ZZZZZZZZZZZZ");
+        assertThat(OrderNumberGenerator.decode("7ZZZZZZZZZZZZ")).isEqualTo(Long.MAX_VALUE);
+
+        String number = new OrderNumberGenerator(1023, () -> NOW).next();
+        assertThat(number).matches("ORD-[0-9A-HJKMNP-TV-Z]{13}");
+    }
+
+    @Test
+    void encodesNodeIdIntoEveryNumber() {
+        String first = new OrderNumberGenerator(1, () -> NOW).next();
+        String second = new OrderNumberGenerator(2, () -> NOW).next();
+
+        assertThat(first).isNotEqualTo(second);
+        assertThatThrownBy(() -> new OrderNumberGenerator(1024, () -> NOW))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> new OrderNumberGenerator(-1, () -> NOW))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void clockGoingBackwardsKeepsNumbersIncreasing() {
+        AtomicLong clock = new AtomicLong(NOW);
+        OrderNumberGenerator generator = new OrderNumberGenerator(1, clock::get);
+
+        String before = generator.next();
+        clock.set(NOW - 60_000);
+        String after = generator.next();
+
+        assertThat(after).isGreaterThan(before);
+    }
+
+    @Test
+    void restartWithClockBehindResumesAfterLastIssuedNumber() {
+        OrderNumberGenerator beforeRestart = new OrderNumberGenerator(1, () -> NOW);
+        String lastIssued = null;
+        for (int i = 0; i < 5_000; i++) {
+            lastIssued = beforeRestart.next();
+        }
+
+        OrderNumberGenerator afterRestart = new OrderNumberGenerator(1, () -> NOW - 60_000);
+        afterRestart.resumeAfter(lastIssued);
+
+        assertThat(afterRestart.next()).isGreaterThan(lastIssued);
+    }
+
+    @Test
+    void resumingAfterOlderNumberKeepsCurrentClock() {
+        OrderNumberGenerator old = new OrderNumberGenerator(1, () -> NOW - 60_000);
+        OrderNumberGenerator generator = new OrderNumberGenerator(1, () -> NOW);
+        String expected = new OrderNumberGenerator(1, () -> NOW).next();
+
+        generator.resumeAfter(old.next());
+
+        assertThat(generator.next()).isEqualTo(expected);
+    }
+
+    private static long decode(String orderNumber) {
+        return OrderNumberGenerator.decode(orderNumber.substring(OrderNumberGenerator.PREFIX.length()));
+    }
+}
@@ -0,0 +1,112 @@
+package com.coffeeshop.service;
+
+import com.coffeeshop.CoffeeShopBackendApplication;
+import com.coffeeshop.dto.OrderDTO;
+import com.coffeeshop.entity.Address;
+import com.coffeeshop.entity.Product;
+import com.coffeeshop.entity.User;
+import com.coffeeshop.enums.CoffeeSize;
+import com.coffeeshop.enums.PaymentMethod;
+import com.coffeeshop.repository.AddressRepository;
+import com.coffeeshop.repository.ProductRepository;
+import com.coffeeshop.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link OrderService#createOrder} throughput against the local
+ * PostgreSQL from docker-compose, with and without JDBC insert batching.
+ * A batch size of 1 approximates the previous IDENTITY ids: one insert round
+ * trip per row, but ids still come from the pooled sequences, so it leaves out
+ * IDENTITY's generated-key read-back and slightly flatters the old path.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class OrderServiceBenchmark {
+
+    @Param({"1", "50"})
+    public int jdbcBatchSize;
+
+    @Param({"5", "30"})
+    public int itemsPerOrder;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private Long userId;
+    private OrderDTO.CreateOrderRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(CoffeeShopBackendApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.jdbc.batch_size=" + jdbcBatchSize,
+                        "logging.level.com.coffeeshop=WARN",
+                        "logging.level.org.springframework.security=WARN")
+                .run();
+        orderService = context.getBean(OrderService.class);
+
+        User user = context.getBean(UserRepository.class)
+                .findByEmail("customer@example.com")
+                .orElseThrow();
+        userId = user.getId();
+
+        AddressRepository addressRepository = context.getBean(AddressRepository.class);
+        Address address = addressRepository.findByUserIdAndLabel(userId, "Benchmark")
+                .orElseGet(() -> addressRepository.save(Address.builder()
+                        .user(user)
+                        .label("Benchmark")
+                        .addressLine1("1 Bench Street")
+                        .city("Seattle")
+                        .state("WA")
+                        .zipCode("98101")
+                        .country("US")
+                        .build()));
+
+        List<Product> products = context.getBean(ProductRepository.class)
+                .findByFeaturedTrueAndAvailableTrue();
+        List<OrderDTO.OrderItemRequest> items = new ArrayList<>();
+        for (int i = 0; i < itemsPerOrder; i++) {
+            items.add(OrderDTO.OrderItemRequest.builder()
+                    .productId(products.get(i % products.size()).getId())
+                    .quantity(1 + i % 3)
+                    .size(CoffeeSize.MEDIUM)
+                    .build());
+        }
+
+        request = OrderDTO.CreateOrderRequest.builder()
+                .deliveryAddressId(address.getId())
+                .paymentMethod(PaymentMethod.CREDIT_CARD)
+                .items(items)
+                .build();
+    }
+
+    @Benchmark
+    public OrderDTO.OrderResponse createOrder() {
+        return orderService.createOrder(userId, request);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(OrderServiceBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,167 @@
+package com.coffeeshop.service;
+
+import com.coffeeshop.dto.OrderDTO;
+import com.coffeeshop.entity.Address;
+import com.coffeeshop.entity.Order;
+import com.coffeeshop.entity.User;
+import com.coffeeshop.enums.OrderStatus;
+import com.coffeeshop.exception.ResourceNotFoundException;
+import com.coffeeshop.exception.TooManyRequestsException;
+import com.coffeeshop.repository.AddressRepository;
+import com.coffeeshop.repository.OrderRepository;
+import com.coffeeshop.repository.ProductRepository;
+import com.coffeeshop.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Bulk status updates report every order individually: updated, not allowed,
+ * missing, and still pending in asynchronous intake.
+ */
+class OrderServiceBulkStatusTest {
+
+    private static final long UPDATED = 1L;
+    private static final long INVALID = 2L;
+    private static final long MISSING = 3L;
+    private static final long PENDING = 4L;
+    private static final long FAILED_INTAKE = 5L;
+
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final PendingOrderRegistry pendingOrders = mock(PendingOrderRegistry.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final Connection connection = mock(Connection.class);
+
+    private OrderService orderService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        orderService = new OrderService(orderRepository,
+                mock(UserRepository.class), mock(ProductRepository.class), mock(AddressRepository.class),
+                mock(OrderIdAllocator.class), mock(OrderNumberGenerator.class), pendingOrders,
+                mock(OrderEventStream.class), mock(KitchenQueue.class), mock(SalesRollupService.class),
+                mock(OrderSnapshotStore.class), mock(PricingEngine.class), mock(ModifierCatalog.class),
+                jdbcTemplate, new TransactionTemplate(transactionManager));
+        ReflectionTestUtils.setField(orderService, "pendingAwaitTimeoutMillis", 10L);
+
+        doThrow(new TooManyRequestsException("Order is still being processed, please retry shortly"))
+                .when(pendingOrders).awaitPersisted(eq(PENDING), anyLong());
+        doThrow(new ResourceNotFoundException("Order not found"))
+                .when(pendingOrders).awaitPersisted(eq(FAILED_INTAKE), anyLong());
+
+        // The guarded UPDATE moves only the CONFIRMED order
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(statement.getConnection()).thenReturn(connection);
+        when(jdbcTemplate.query(anyString(), any(PreparedStatementSetter.class), any(RowMapper.class)))
+                .thenAnswer(invocation -> {
+                    invocation.<PreparedStatementSetter>getArgument(1).setValues(statement);
+                    return List.of(UPDATED);
+                });
+
+        when(orderRepository.findByIdIn(Set.of(UPDATED))).thenReturn(List.of(order(UPDATED)));
+        when(orderRepository.findStatusesByIdIn(List.of(INVALID, MISSING)))
+                .thenReturn(List.of(status(INVALID, OrderStatus.DELIVERED)));
+    }
+
+    @Test
+    void reportsEachOrderWithoutFailingTheRequest() throws Exception {
+        OrderDTO.BulkUpdateOrderStatusResponse response = orderService.bulkUpdateOrderStatus(
+                OrderDTO.BulkUpdateOrderStatusRequest.builder()
+                        .orderIds(List.of(UPDATED, INVALID, MISSING, PENDING, FAILED_INTAKE, UPDATED))
+                        .status(OrderStatus.PREPARING)
+                        .build());
+
+        assertThat(response.getRequested()).isEqualTo(5);
+        assertThat(response.getUpdated()).isEqualTo(1);
+        assertThat(response.getResults())
+                .extracting(OrderDTO.OrderStatusOutcome::getOrderId,
+                        OrderDTO.OrderStatusOutcome::isUpdated,
+                        OrderDTO.OrderStatusOutcome::getStatus,
+                        OrderDTO.OrderStatusOutcome::getError)
+                .containsExactly(
+                        tuple(UPDATED, true, OrderStatus.PREPARING, null),
+                        tuple(INVALID, false, OrderStatus.DELIVERED,
+                                "Order in status DELIVERED cannot move to PREPARING"),
+                        tuple(MISSING, false, null, "Order not found"),
+                        tuple(PENDING, false, null,
+                                "Order is still being processed, please retry shortly"),
+                        tuple(FAILED_INTAKE, false, null, "Order not found"));
+
+        // Orders that were not written are left out of the UPDATE
+        ArgumentCaptor<Object[]> ids = ArgumentCaptor.forClass(Object[].class);
+        verify(connection).createArrayOf(eq("bigint"), ids.capture());
+        assertThat(ids.getValue()).containsExactly(UPDATED, INVALID, MISSING);
+    }
+
+    @Test
+    void waitsForPendingOrdersBeforeStartingTheTransaction() {
+        orderService.bulkUpdateOrderStatus(OrderDTO.BulkUpdateOrderStatusRequest.builder()
+                .orderIds(List.of(UPDATED, PENDING))
+                .status(OrderStatus.PREPARING)
+                .build());
+
+        InOrder order = inOrder(pendingOrders, transactionManager);
+        order.verify(pendingOrders).awaitPersisted(eq(UPDATED), anyLong());
+        order.verify(pendingOrders).awaitPersisted(eq(PENDING), anyLong());
+        order.verify(transactionManager).getTransaction(any());
+    }
+
+    private static Order order(Long id) {
+        User user = User.builder().fullName("Bulk Test").email("bulk@example.com").password("secret").build();
+        user.setId(10L);
+        Order order = Order.builder()
+                .user(user)
+                .orderNumber("ORD-BULK-" + id)
+                .orderDate(LocalDateTime.now())
+                .status(OrderStatus.PREPARING)
+                .deliveryAddress(Address.builder().country("US").build())
+                .build();
+        order.setId(id);
+        return order;
+    }
+
+    private static OrderRepository.StatusView status(Long id, OrderStatus status) {
+        return new OrderRepository.StatusView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public OrderStatus getStatus() {
+                return status;
+            }
+
+            @Override
+            public Long getUserId() {
+                return 10L;
+            }
+        };
+    }
+}
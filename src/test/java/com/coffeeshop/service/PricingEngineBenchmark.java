@@ -0,0 +1,109 @@
+package com.coffeeshop.service;
+
+import com.coffeeshop.entity.Address;
+import com.coffeeshop.entity.Order;
+import com.coffeeshop.entity.OrderItem;
+import com.coffeeshop.entity.Product;
+import com.coffeeshop.enums.CoffeeSize;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link PricingEngine} with the previous BigDecimal totals calculation
+ * (kept below as {@link #legacyTotals}) on the same order: pricing the entity
+ * in place, and the cents-only core on prebuilt line arrays.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PricingEngineBenchmark {
+
+    @Param({"3", "30"})
+    public int itemsPerOrder;
+
+    private final PricingEngine engine = new PricingEngine(
+            new ModifierCatalog(null), -50, 0, 50, 100, 299, "10", "US=8,US-WA=10.25,US-OR=0");
+
+    private Order order;
+    private long[] unitCents;
+    private int[] quantities;
+    private int taxBasisPoints;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Address address = Address.builder().country("US").state("WA").build();
+        order = Order.builder()
+                .deliveryAddress(address)
+                .deliveryFee(BigDecimal.valueOf(2.99))
+                .build();
+
+        CoffeeSize[] sizes = CoffeeSize.values();
+        unitCents = new long[itemsPerOrder];
+        quantities = new int[itemsPerOrder];
+        for (int i = 0; i < itemsPerOrder; i++) {
+            Product product = Product.builder()
+                    .name("Product " + i)
+                    .price(new BigDecimal("3.49").add(BigDecimal.valueOf(i, 2)))
+                    .build();
+            product.setId((long) i + 1);
+            product.setVersion(0L);
+
+            OrderItem item = OrderItem.builder()
+                    .product(product)
+                    .quantity(1 + i % 3)
+                    .price(product.getPrice())
+                    .size(sizes[i % sizes.length])
+                    .build();
+            order.addOrderItem(item);
+
+            unitCents[i] = engine.unitPriceCents(product, item.getSize());
+            quantities[i] = item.getQuantity();
+        }
+        taxBasisPoints = engine.taxBasisPoints(address);
+    }
+
+    @Benchmark
+    public BigDecimal legacyCalculateTotals() {
+        legacyTotals(order);
+        return order.getTotalAmount();
+    }
+
+    @Benchmark
+    public BigDecimal enginePriceOrder() {
+        engine.price(order);
+        return order.getTotalAmount();
+    }
+
+    @Benchmark
+    public long engineCentsOnly() {
+        long subtotal = PricingEngine.subtotalCents(unitCents, quantities, itemsPerOrder);
+        return subtotal + PricingEngine.taxCents(subtotal, taxBasisPoints) + engine.getDeliveryFeeCents();
+    }
+
+    /**
+     * The removed Order.calculateTotals: BigDecimal arithmetic with an unrounded 10% tax.
+     */
+    private static void legacyTotals(Order order) {
+        BigDecimal subtotal = order.getOrderItems().stream()
+                .map(item -> item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal tax = subtotal.multiply(BigDecimal.valueOf(0.1));
+        order.setSubtotal(subtotal);
+        order.setTax(tax);
+        order.setTotalAmount(subtotal.add(tax).add(order.getDeliveryFee()));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PricingEngineBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,121 @@
+package com.coffeeshop.service;
+
+import com.coffeeshop.entity.Address;
+import com.coffeeshop.entity.Order;
+import com.coffeeshop.entity.OrderItem;
+import com.coffeeshop.entity.Product;
+import com.coffeeshop.enums.CoffeeSize;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit prices, tax lookup and rounding, and modifier deltas of {@link PricingEngine}.
+ */
+class PricingEngineTest {
+
+    private final ModifierCatalog modifierCatalog = mock(ModifierCatalog.class);
+
+    private final PricingEngine engine = new PricingEngine(
+            modifierCatalog, -50, 0, 50, 100, 299, "10", "US=8,US-WA=10.25,GB=20");
+
+    @Test
+    void appliesSizeDeltasToBasePrice() {
+        Product product = product(1L, "4.00");
+
+        assertThat(engine.unitPriceCents(product, null)).isEqualTo(400);
+        assertThat(engine.unitPriceCents(product, CoffeeSize.SMALL)).isEqualTo(350);
+        assertThat(engine.unitPriceCents(product, CoffeeSize.MEDIUM)).isEqualTo(400);
+        assertThat(engine.unitPriceCents(product, CoffeeSize.LARGE)).isEqualTo(450);
+        assertThat(engine.unitPriceCents(product, CoffeeSize.EXTRA_LARGE)).isEqualTo(500);
+    }
+
+    @Test
+    void sizeDeltaNeverMakesPriceNegative() {
+        assertThat(engine.unitPriceCents(product(2L, "0.30"), CoffeeSize.SMALL)).isZero();
+    }
+
+    @Test
+    void picksUpNewBasePriceWhenProductVersionChanges() {
+        Product product = product(3L, "4.00");
+        assertThat(engine.unitPriceCents(product, null)).isEqualTo(400);
+
+        product.setPrice(new BigDecimal("4.25"));
+        product.setVersion(1L);
+
+        assertThat(engine.unitPriceCents(product, null)).isEqualTo(425);
+    }
+
+    @Test
+    void looksUpTaxByStateThenCountryThenDefault() {
+        assertThat(engine.taxBasisPoints(address("US", "WA"))).isEqualTo(1025);
+        assertThat(engine.taxBasisPoints(address("us", " wa "))).isEqualTo(1025);
+        assertThat(engine.taxBasisPoints(address("US", "OR"))).isEqualTo(800);
+        assertThat(engine.taxBasisPoints(address("US", null))).isEqualTo(800);
+        assertThat(engine.taxBasisPoints(address("GB", "LND"))).isEqualTo(2000);
+        assertThat(engine.taxBasisPoints(address("FR", null))).isEqualTo(1000);
+        assertThat(engine.taxBasisPoints(address(null, "WA"))).isEqualTo(1000);
+        assertThat(engine.taxBasisPoints(null)).isEqualTo(1000);
+    }
+
+    @Test
+    void roundsTaxHalfUpToTheCent() {
+        assertThat(PricingEngine.taxCents(5, 1000)).isEqualTo(1);
+        assertThat(PricingEngine.taxCents(4, 1000)).isZero();
+        assertThat(PricingEngine.taxCents(105, 1000)).isEqualTo(11);
+        assertThat(PricingEngine.taxCents(1999, 825)).isEqualTo(165);
+        assertThat(PricingEngine.taxCents(1000, 1025)).isEqualTo(103);
+        assertThat(PricingEngine.toCents(new BigDecimal("1.005"))).isEqualTo(101);
+    }
+
+    @Test
+    void pricesOrderWithModifierDeltas() {
+        short[] modifiers = {1, 2};
+        when(modifierCatalog.priceDeltaCents(any())).thenReturn(0L);
+        when(modifierCatalog.priceDeltaCents(modifiers)).thenReturn(75L);
+
+        Order order = Order.builder().deliveryAddress(address("US", "WA")).build();
+        OrderItem latte = OrderItem.builder()
+                .product(product(4L, "4.00"))
+                .quantity(2)
+                .size(CoffeeSize.LARGE)
+                .modifierIds(modifiers)
+                .build();
+        OrderItem cookie = OrderItem.builder()
+                .product(product(5L, "1.99"))
+                .quantity(1)
+                .build();
+        order.addOrderItem(latte);
+        order.addOrderItem(cookie);
+
+        engine.price(order);
+
+        // Latte: 400 + 50 (large) + 75 (modifiers) = 525 x 2; cookie: 199
+        assertThat(latte.getPrice()).isEqualByComparingTo("5.25");
+        assertThat(cookie.getPrice()).isEqualByComparingTo("1.99");
+        assertThat(order.getSubtotal()).isEqualByComparingTo("12.49");
+        // 1249 x 10.25% = 128.0225
+        assertThat(order.getTax()).isEqualByComparingTo("1.28");
+        assertThat(order.getDeliveryFee()).isEqualByComparingTo("2.99");
+        assertThat(order.getTotalAmount()).isEqualByComparingTo("16.76");
+    }
+
+    private static Product product(Long id, String price) {
+        Product product = Product.builder()
+                .name("Product " + id)
+                .price(new BigDecimal(price))
+                .build();
+        product.setId(id);
+        product.setVersion(0L);
+        return product;
+    }
+
+    private static Address address(String country, String state) {
+        return Address.builder().country(country).state(state).build();
+    }
+}